@@ -2,8 +2,10 @@ package com.perfulandia.mic_reportes_fase2;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MicReportesFase2Application {
 
 	public static void main(String[] args) {
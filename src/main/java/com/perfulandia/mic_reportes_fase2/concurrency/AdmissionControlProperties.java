@@ -0,0 +1,43 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Configuracion del control de admision (prefijo `reportes.admision` en application.properties).
+ Lecturas y escrituras tienen limites separados; las escrituras ademas se reparten
+ entre usuarios con una cuota proporcional al limite actual. */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "reportes.admision")
+public class AdmissionControlProperties {
+
+    private boolean habilitado = true;
+
+    private Limite lectura = new Limite(20, 4, 200, 1.5, 0.2);
+
+    private Limite escritura = new Limite(10, 2, 100, 1.5, 0.2);
+
+    /*Fraccion del limite de escritura que puede ocupar un mismo id_usuario */
+    private double fraccionPorUsuario = 0.25;
+
+    /*Cuota minima por usuario aunque el limite global sea muy bajo */
+    private int minimoPorUsuario = 1;
+
+    private long retryAfterSegundos = 1;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Limite {
+        private int inicial;
+        private int minimo;
+        private int maximo;
+        private double tolerancia;
+        private double suavizado;
+    }
+}
@@ -0,0 +1,19 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+/*Excepcion lanzada cuando el control de admision rechaza una operacion porque
+ el limite de concurrencia (global o del usuario) ya esta ocupado.
+ Se traduce a un 503 con cabecera Retry-After en ReportesExceptionHandler. */
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public AdmissionRejectedException(String motivo, long retryAfterSegundos) {
+        super(motivo);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
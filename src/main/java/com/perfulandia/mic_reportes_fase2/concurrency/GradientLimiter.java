@@ -0,0 +1,89 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*Limitador de concurrencia adaptativo basado en el gradiente de latencia.
+ Compara la latencia de cada llamada con una media de largo plazo: mientras la latencia
+ se mantiene estable el limite crece, y cuando la base de datos empieza a encolar (la latencia sube)
+ el limite se reduce de forma proporcional, de modo que el exceso de peticiones se rechaza
+ en vez de acumularse en los hilos de Tomcat o en la espera del pool de conexiones. */
+
+public class GradientLimiter {
+
+    // Numero de muestras usadas para la media de largo plazo y para el calentamiento inicial
+    private static final int VENTANA_LARGA = 600;
+    private static final int CALENTAMIENTO = 10;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final double suavizado;
+
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private volatile double limite;
+
+    // Protegidos por el monitor de la instancia
+    private double rttLargoNanos;
+    private long muestras;
+
+    public GradientLimiter(int limiteInicial, int limiteMinimo, int limiteMaximo, double tolerancia, double suavizado) {
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = tolerancia;
+        this.suavizado = suavizado;
+        this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, limiteInicial));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int actual = enVuelo.get();
+            if (actual >= getLimite()) {
+                return false;
+            }
+            if (enVuelo.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int enVueloMuestra = enVuelo.getAndDecrement();
+        registrarMuestra(Math.max(1L, rttNanos), enVueloMuestra);
+    }
+
+    private synchronized void registrarMuestra(double rtt, int enVueloMuestra) {
+        muestras++;
+        if (muestras <= CALENTAMIENTO) {
+            rttLargoNanos += (rtt - rttLargoNanos) / muestras;
+        } else {
+            rttLargoNanos += (rtt - rttLargoNanos) / VENTANA_LARGA;
+        }
+
+        // Tras una sobrecarga la media larga queda muy alta; se acerca mas rapido a la latencia actual
+        if (rttLargoNanos / rtt > 2.0) {
+            rttLargoNanos *= 0.95;
+        }
+
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * rttLargoNanos / rtt));
+        double nuevoLimite = limite * gradiente + Math.sqrt(limite);
+        nuevoLimite = limite * (1 - suavizado) + nuevoLimite * suavizado;
+
+        // Si no se usa ni la mitad del limite la muestra no justifica subirlo, solo bajarlo
+        if (enVueloMuestra < limite / 2) {
+            nuevoLimite = Math.min(limite, nuevoLimite);
+        }
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, nuevoLimite));
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+
+    public synchronized double getRttLargoMillis() {
+        return rttLargoNanos / 1_000_000.0;
+    }
+}
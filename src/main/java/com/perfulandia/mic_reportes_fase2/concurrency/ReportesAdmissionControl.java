@@ -0,0 +1,127 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*Control de admision delante de ReportesService. Cada operacion de lectura o escritura
+ pide un permiso a su GradientLimiter; si no hay permiso se lanza AdmissionRejectedException
+ de inmediato (fail fast) en lugar de esperar por una conexion del pool.
+ Las escrituras ademas respetan una cuota por id_usuario para que un solo productor
+ no pueda ocupar todo el limite. Los limites actuales se publican como metricas. */
+
+@Component
+public class ReportesAdmissionControl {
+
+    private final AdmissionControlProperties propiedades;
+    private final GradientLimiter lecturas;
+    private final GradientLimiter escrituras;
+    private final Map<String, Integer> escriturasPorUsuario = new ConcurrentHashMap<>();
+    private final Counter rechazosLectura;
+    private final Counter rechazosEscritura;
+
+    public ReportesAdmissionControl(AdmissionControlProperties propiedades, MeterRegistry registry) {
+        this.propiedades = propiedades;
+        this.lecturas = crearLimitador(propiedades.getLectura());
+        this.escrituras = crearLimitador(propiedades.getEscritura());
+
+        registrarMetricas(registry, "lectura", lecturas);
+        registrarMetricas(registry, "escritura", escrituras);
+        this.rechazosLectura = Counter.builder("reportes.admision.rechazos").tag("tipo", "lectura").register(registry);
+        this.rechazosEscritura = Counter.builder("reportes.admision.rechazos").tag("tipo", "escritura").register(registry);
+    }
+
+    public <T> T lectura(Supplier<T> operacion) {
+        if (!propiedades.isHabilitado()) {
+            return operacion.get();
+        }
+        return ejecutar(lecturas, rechazosLectura, operacion);
+    }
+
+    public <T> T escritura(String idUsuario, Supplier<T> operacion) {
+        if (!propiedades.isHabilitado()) {
+            return operacion.get();
+        }
+        // Sin usuario conocido (p. ej. un borrado por id) solo aplica el limite global
+        if (idUsuario == null) {
+            return ejecutar(escrituras, rechazosEscritura, operacion);
+        }
+        if (!reservarCuotaUsuario(idUsuario)) {
+            rechazosEscritura.increment();
+            throw new AdmissionRejectedException("Cuota de escritura agotada para el usuario " + idUsuario,
+                    propiedades.getRetryAfterSegundos());
+        }
+        try {
+            return ejecutar(escrituras, rechazosEscritura, operacion);
+        } finally {
+            liberarCuotaUsuario(idUsuario);
+        }
+    }
+
+    public void escrituraSinRetorno(String idUsuario, Runnable operacion) {
+        escritura(idUsuario, () -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    private <T> T ejecutar(GradientLimiter limitador, Counter rechazos, Supplier<T> operacion) {
+        if (!limitador.tryAcquire()) {
+            rechazos.increment();
+            throw new AdmissionRejectedException("Limite de concurrencia alcanzado", propiedades.getRetryAfterSegundos());
+        }
+        long inicio = System.nanoTime();
+        try {
+            return operacion.get();
+        } finally {
+            limitador.release(System.nanoTime() - inicio);
+        }
+    }
+
+    private boolean reservarCuotaUsuario(String usuario) {
+        int cuota = cuotaPorUsuario();
+        boolean[] reservado = {false};
+        escriturasPorUsuario.compute(usuario, (clave, actuales) -> {
+            int enCurso = actuales == null ? 0 : actuales;
+            if (enCurso >= cuota) {
+                return actuales;
+            }
+            reservado[0] = true;
+            return enCurso + 1;
+        });
+        return reservado[0];
+    }
+
+    private void liberarCuotaUsuario(String usuario) {
+        escriturasPorUsuario.computeIfPresent(usuario, (clave, actuales) -> actuales <= 1 ? null : actuales - 1);
+    }
+
+    private int cuotaPorUsuario() {
+        int cuota = (int) Math.ceil(escrituras.getLimite() * propiedades.getFraccionPorUsuario());
+        return Math.max(propiedades.getMinimoPorUsuario(), cuota);
+    }
+
+    private static GradientLimiter crearLimitador(AdmissionControlProperties.Limite limite) {
+        return new GradientLimiter(limite.getInicial(), limite.getMinimo(), limite.getMaximo(),
+                limite.getTolerancia(), limite.getSuavizado());
+    }
+
+    private static void registrarMetricas(MeterRegistry registry, String tipo, GradientLimiter limitador) {
+        Gauge.builder("reportes.admision.limite", limitador, GradientLimiter::getLimite)
+                .tag("tipo", tipo)
+                .register(registry);
+        Gauge.builder("reportes.admision.en.curso", limitador, GradientLimiter::getEnVuelo)
+                .tag("tipo", tipo)
+                .register(registry);
+        Gauge.builder("reportes.admision.rtt.base", limitador, GradientLimiter::getRttLargoMillis)
+                .tag("tipo", tipo)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*Agrupa llamadas identicas concurrentes (single-flight): la primera llamada con una clave
+ (operacion + argumentos) ejecuta la consulta y las que llegan mientras esta en curso esperan
+ su resultado en vez de lanzar la misma consulta otra vez. Si la primera falla, todas reciben
+ la misma excepcion. Las que esperan reciben una copia del resultado (`copiaParaEsperas`),
+ porque las entidades JPA son mutables y no deben compartirse entre peticiones. */
+
+@Component
+public class SingleFlight {
+
+    private record Clave(String operacion, List<Object> argumentos) {
+    }
+
+    private final SingleFlightProperties propiedades;
+    private final MeterRegistry registry;
+    private final long retryAfterSegundos;
+    private final ConcurrentHashMap<Clave, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> compartidas = new ConcurrentHashMap<>();
+
+    // El Retry-After de una espera agotada es el mismo que el de un rechazo del control de admision
+    public SingleFlight(SingleFlightProperties propiedades, AdmissionControlProperties admision, MeterRegistry registry) {
+        this.propiedades = propiedades;
+        this.registry = registry;
+        this.retryAfterSegundos = admision.getRetryAfterSegundos();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String operacion, Supplier<T> llamada, UnaryOperator<T> copiaParaEsperas, Object... argumentos) {
+        if (!propiedades.isHabilitado()) {
+            return llamada.get();
+        }
+        Clave clave = new Clave(operacion, Arrays.asList(argumentos));
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            compartidas.computeIfAbsent(operacion, nombre -> Counter.builder("reportes.singleflight.compartidas")
+                    .tag("operacion", nombre).register(registry)).increment();
+            return copiaParaEsperas.apply((T) esperar(operacion, existente));
+        }
+
+        // Se quita la clave antes de publicar el resultado: quien llegue despues lanza una consulta nueva
+        T resultado;
+        try {
+            resultado = llamada.get();
+        } catch (RuntimeException | Error e) {
+            enCurso.remove(clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+        enCurso.remove(clave, propia);
+        propia.complete(resultado);
+        return resultado;
+    }
+
+    private Object esperar(String operacion, CompletableFuture<Object> enVuelo) {
+        long timeout = propiedades.getTimeoutPorOperacionMs().getOrDefault(operacion, propiedades.getTimeoutMs());
+        try {
+            return enVuelo.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SingleFlightTimeoutException(operacion, retryAfterSegundos);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new IllegalStateException(causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando " + operacion, e);
+        }
+    }
+}
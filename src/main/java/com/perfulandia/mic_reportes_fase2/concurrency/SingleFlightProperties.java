@@ -0,0 +1,25 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/*Configuracion de la agrupacion de lecturas identicas (prefijo `reportes.single-flight`).
+ `timeoutMs` es lo maximo que una llamada espera el resultado de otra igual que ya esta en curso;
+ `timeoutPorOperacionMs` permite ajustarlo por operacion (p. ej. findAll=10000). */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "reportes.single-flight")
+public class SingleFlightProperties {
+
+    private boolean habilitado = true;
+
+    private long timeoutMs = 2000;
+
+    private Map<String, Long> timeoutPorOperacionMs = new HashMap<>();
+}
@@ -0,0 +1,11 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+/*Se lanza cuando una llamada agrupada se cansa de esperar el resultado de la llamada identica en curso.
+ Igual que un rechazo de admision, indica que la base de datos no da abasto y se responde con 503. */
+
+public class SingleFlightTimeoutException extends AdmissionRejectedException {
+
+    public SingleFlightTimeoutException(String operacion, long retryAfterSegundos) {
+        super("Tiempo de espera agotado para " + operacion, retryAfterSegundos);
+    }
+}
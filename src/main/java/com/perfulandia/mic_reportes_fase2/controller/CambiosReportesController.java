@@ -0,0 +1,53 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.perfulandia.mic_reportes_fase2.model.PaginaCambios;
+import com.perfulandia.mic_reportes_fase2.service.ReportesCambiosService;
+
+
+@RestController
+@RequestMapping("/api/v1/reportes/changes")
+public class CambiosReportesController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    @Autowired
+    private ReportesCambiosService cambiosService;
+
+    @GetMapping
+    public ResponseEntity<PaginaCambios> getCambios(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (since < 0 || limit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(cambiosService.cambiosDesde(since, Math.min(limit, LIMITE_MAXIMO)), HttpStatus.OK);
+    }
+}
+
+
+
+/*Este controlador expone el registro de cambios de reportes para que los sistemas externos se sincronicen
+de forma incremental en lugar de volver a pedir `GET /api/v1/reportes` completo:
+
+    getCambios() (GET /api/v1/reportes/changes?since=&limit=)
+
+        Función: Devuelve, en orden, los cambios (INSERT, UPDATE, DELETE) con secuencia mayor que `since`,
+        como mucho `limit` (máximo 1000), y el cursor para la siguiente llamada.
+
+        Respuestas:
+
+            200 OK con el lote de cambios (vacío si no hay nada nuevo).
+
+            410 GONE si `since` es anterior a los cambios conservados: hay que resincronizar completo.
+
+            501 NOT IMPLEMENTED con sharding habilitado: en ese modo no se anotan cambios.
+
+Un ciclo de sincronización cuesta así O(cambios) en vez de O(tabla). */
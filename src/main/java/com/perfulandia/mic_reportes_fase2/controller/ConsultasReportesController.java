@@ -0,0 +1,75 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PaginaReportes;
+import com.perfulandia.mic_reportes_fase2.service.ReportesService;
+
+
+@RestController
+@RequestMapping("/api/v1/reportes/consultas")
+public class ConsultasReportesController {
+
+    private static final int TAMANO_MAXIMO = 500;
+
+    // Con shards cada uno devuelve hasta (pagina + 1) * tamano filas: las paginas profundas se cortan aqui
+    private static final int FILAS_MAXIMAS = 10_000;
+
+    @Autowired
+    private ReportesService reportesService;
+
+    @GetMapping
+    public ResponseEntity<PaginaReportes> buscar(
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) String usuario,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "50") int tamano) {
+        int acotado = Math.min(tamano, TAMANO_MAXIMO);
+        if (pagina < 0 || tamano < 1 || (desde != null && hasta != null && desde.isAfter(hasta))
+                || (long) (pagina + 1) * acotado > FILAS_MAXIMAS) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        FiltroReportes filtro = new FiltroReportes(area, usuario, desde, hasta);
+        return new ResponseEntity<>(reportesService.buscar(filtro, pagina, acotado), HttpStatus.OK);
+    }
+
+    @GetMapping("/por-area")
+    public ResponseEntity<Map<String, Long>> contarPorArea() {
+        return new ResponseEntity<>(reportesService.contarPorArea(), HttpStatus.OK);
+    }
+}
+
+
+
+/*Este controlador expone consultas de reportes filtradas y agregadas. Funcionan igual con una sola base
+de datos que con los reportes repartidos en shards (`reportes.sharding.*`), donde se consultan todos en paralelo:
+
+    buscar() (GET /api/v1/reportes/consultas?area=&usuario=&desde=&hasta=&pagina=0&tamano=50)
+
+        Función: Devuelve una página de reportes que cumplen el filtro, ordenados por id, y el total.
+        `tamano` se acota a 500 y solo se sirven las primeras 10.000 filas.
+
+        Respuestas:
+
+            200 OK con la página (vacía si no hay coincidencias).
+
+            400 BAD_REQUEST si la página, el tamaño o el rango de fechas no son válidos.
+
+            503 SERVICE_UNAVAILABLE si algún shard no responde a tiempo.
+
+    contarPorArea() (GET /api/v1/reportes/consultas/por-area)
+
+        Función: Devuelve el número de reportes de cada área (sumado entre todos los shards). */
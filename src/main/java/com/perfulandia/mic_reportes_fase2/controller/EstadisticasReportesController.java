@@ -0,0 +1,71 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaTopUsuarios;
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaUsuariosDistintos;
+import com.perfulandia.mic_reportes_fase2.service.ReportesEstadisticasService;
+
+
+@RestController
+@RequestMapping("/api/v1/reportes/estadisticas")
+public class EstadisticasReportesController {
+    @Autowired
+    private ReportesEstadisticasService estadisticasService;
+
+    @GetMapping("/usuarios-distintos")
+    public ResponseEntity<EstadisticaUsuariosDistintos> getUsuariosDistintos(
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin;
+        if (inicio.isAfter(fin)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(estadisticasService.usuariosDistintos(area, inicio, fin), HttpStatus.OK);
+    }
+
+    @GetMapping("/top-usuarios")
+    public ResponseEntity<EstadisticaTopUsuarios> getTopUsuarios(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "20") int n) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin;
+        if (inicio.isAfter(fin) || n < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(estadisticasService.topUsuarios(inicio, fin, n), HttpStatus.OK);
+    }
+
+    @PostMapping("/reconstruccion")
+    public ResponseEntity<Long> reconstruir() {
+        return new ResponseEntity<>(estadisticasService.reconstruir(), HttpStatus.OK);
+    }
+}
+
+
+
+/*Este controlador expone estadisticas aproximadas de reportes calculadas con sketches en memoria,
+respondidas en tiempo y memoria constantes respecto al tamaño de la tabla:
+
+1. **Usuarios distintos** (`GET /usuarios-distintos?area=&desde=&hasta=`): estimacion HyperLogLog
+   con su error estandar relativo e intervalo del 95 %. Sin `area` cuenta todas las areas.
+   Por dia se distinguen como mucho 64 areas; las siguientes se cuentan juntas en `area=otros`.
+2. **Usuarios mas activos** (`GET /top-usuarios?desde=&hasta=&n=20`): resumen Space-Saving con
+   cotas superior e inferior de la cuenta de cada usuario.
+3. **Reconstruccion** (`POST /reconstruccion`): recalcula los sketches leyendo la tabla y devuelve
+   el numero de reportes leidos.
+
+Sin fechas se usa el dia actual; solo se conservan los ultimos `reportes.estadisticas.dias-retenidos` dias. */
@@ -0,0 +1,67 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PurgaReportes;
+import com.perfulandia.mic_reportes_fase2.service.ReportesPurgaService;
+
+
+@RestController
+@RequestMapping("/api/v1/reportes/purgas")
+public class PurgaReportesController {
+    @Autowired
+    private ReportesPurgaService purgaService;
+
+    @PostMapping
+    public ResponseEntity<PurgaReportes> iniciarPurga(@RequestBody FiltroReportes filtro) {
+        if (filtro == null || filtro.isVacio() || !filtro.isRangoValido()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        PurgaReportes purga = purgaService.iniciar(filtro);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/reportes/purgas/" + purga.getId()))
+                .body(purga);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PurgaReportes>> getAllPurgas() {
+        return new ResponseEntity<>(purgaService.findAll(), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PurgaReportes> getPurgaById(@PathVariable String id) {
+        return purgaService.findById(id)
+                .map(purga -> new ResponseEntity<>(purga, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<PurgaReportes> cancelarPurga(@PathVariable String id) {
+        return purgaService.cancelar(id)
+                .map(purga -> new ResponseEntity<>(purga, HttpStatus.ACCEPTED))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
+
+
+
+/*Este controlador expone el borrado masivo de reportes por filtro, pensado para limpiar los datos
+de un productor erroneo sin llamar a `DELETE /api/v1/reportes/{id}` fila por fila:
+
+1. **Iniciar** (`POST /api/v1/reportes/purgas`) con un `FiltroReportes` en el cuerpo; responde 202 ACCEPTED
+   con el estado inicial y la cabecera Location. Un filtro vacio se rechaza con 400 para evitar vaciar la tabla.
+2. **Consultar progreso** (`GET /api/v1/reportes/purgas/{id}`): reportes borrados, lotes y estado.
+3. **Cancelar** (`DELETE /api/v1/reportes/purgas/{id}`): la purga se detiene al terminar el lote en curso. */
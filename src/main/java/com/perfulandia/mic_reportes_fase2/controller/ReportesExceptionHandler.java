@@ -0,0 +1,40 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.perfulandia.mic_reportes_fase2.concurrency.AdmissionRejectedException;
+import com.perfulandia.mic_reportes_fase2.service.CambiosNoDisponiblesException;
+import com.perfulandia.mic_reportes_fase2.service.CursorExpiradoException;
+
+/*Manejo centralizado de excepciones para los controladores de reportes.
+ Un rechazo del control de admision se responde con 503 SERVICE_UNAVAILABLE
+ y la cabecera Retry-After, para que el cliente reintente mas tarde en vez de esperar.
+ Un cursor de cambios ya compactado se responde con 410 GONE y el cursor desde el que continuar.
+ El registro de cambios pedido con sharding habilitado se responde con 501 NOT_IMPLEMENTED. */
+
+@RestControllerAdvice
+public class ReportesExceptionHandler {
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Void> manejarRechazoAdmision(AdmissionRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .build();
+    }
+
+    @ExceptionHandler(CursorExpiradoException.class)
+    public ResponseEntity<Map<String, Long>> manejarCursorExpirado(CursorExpiradoException ex) {
+        return new ResponseEntity<>(Map.of("cursorMinimo", ex.getCursorMinimo()), HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(CambiosNoDisponiblesException.class)
+    public ResponseEntity<Map<String, String>> manejarCambiosNoDisponibles(CambiosNoDisponiblesException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.NOT_IMPLEMENTED);
+    }
+}
@@ -0,0 +1,43 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+/*Usuarios con mas reportes entre dos fechas. Cada cuenta es una cota superior de la real
+ y `minimoGarantizado` una cota inferior; `errorMaximoCountMin` es la sobreestimacion maxima
+ del sketch Count-Min con probabilidad `confianzaCountMin`. */
+
+public class EstadisticaTopUsuarios {
+
+    private LocalDate desde;
+
+    private LocalDate hasta;
+
+    private long totalReportes;
+
+    private long errorMaximoCountMin;
+
+    private double confianzaCountMin;
+
+    private List<UsuarioFrecuente> usuarios;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UsuarioFrecuente {
+
+        private String id_usuario;
+
+        private long reportes;
+
+        private long minimoGarantizado;
+    }
+}
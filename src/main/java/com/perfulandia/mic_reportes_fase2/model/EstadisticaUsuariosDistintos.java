@@ -0,0 +1,31 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+/*Estimacion de usuarios distintos que reportaron en un area (o en todas si id_areaReporte es nulo)
+ entre dos fechas, con su error estandar relativo y el intervalo de confianza del 95 %. */
+
+public class EstadisticaUsuariosDistintos {
+
+    private String id_areaReporte;
+
+    private LocalDate desde;
+
+    private LocalDate hasta;
+
+    private long estimacion;
+
+    private double errorEstandarRelativo;
+
+    private long minimo95;
+
+    private long maximo95;
+}
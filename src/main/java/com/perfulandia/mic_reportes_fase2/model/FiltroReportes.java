@@ -0,0 +1,37 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+/*Criterios para seleccionar reportes por area, usuario y rango de fechas (ambos extremos incluidos).
+ Los campos nulos no filtran. */
+
+public class FiltroReportes {
+
+    private String id_areaReporte;
+
+    private String id_usuario;
+
+    private LocalDate desde;
+
+    private LocalDate hasta;
+
+    @JsonIgnore
+    public boolean isVacio() {
+        return id_areaReporte == null && id_usuario == null && desde == null && hasta == null;
+    }
+
+    @JsonIgnore
+    public boolean isRangoValido() {
+        return desde == null || hasta == null || !desde.isAfter(hasta);
+    }
+}
@@ -0,0 +1,23 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+/*Lote de cambios devuelto por GET /api/v1/reportes/changes. `siguienteCursor` es el valor de `since`
+ para la siguiente llamada y `hayMas` indica si conviene pedirla de inmediato. */
+
+public class PaginaCambios {
+
+    private List<ReporteCambio> cambios;
+
+    private long siguienteCursor;
+
+    private boolean hayMas;
+}
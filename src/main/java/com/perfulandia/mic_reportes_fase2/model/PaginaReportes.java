@@ -0,0 +1,25 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+/*Pagina de reportes devuelta por GET /api/v1/reportes/consultas, ordenada por id.
+ `total` es el numero de reportes que cumplen el filtro en todas las paginas. */
+
+public class PaginaReportes {
+
+    private List<Reportes> reportes;
+
+    private int pagina;
+
+    private int tamano;
+
+    private long total;
+}
@@ -0,0 +1,74 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/*Estado de una purga de reportes por filtro. La actualiza el hilo que borra los lotes
+ y la leen los clientes que consultan el progreso, por eso todos los campos son volatiles o atomicos. */
+
+@Getter
+public class PurgaReportes {
+
+    public enum Estado { PENDIENTE, EN_CURSO, COMPLETADA, CANCELADA, FALLIDA }
+
+    private final String id;
+
+    private final FiltroReportes filtro;
+
+    private volatile Estado estado = Estado.PENDIENTE;
+
+    private volatile int lotes;
+
+    private volatile Instant inicio;
+
+    private volatile Instant fin;
+
+    private volatile String error;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong borrados = new AtomicLong();
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean cancelacionSolicitada = new AtomicBoolean();
+
+    public PurgaReportes(String id, FiltroReportes filtro) {
+        this.id = id;
+        this.filtro = filtro;
+    }
+
+    public long getBorrados() {
+        return borrados.get();
+    }
+
+    public boolean isCancelacionSolicitada() {
+        return cancelacionSolicitada.get();
+    }
+
+    public boolean isTerminada() {
+        return estado == Estado.COMPLETADA || estado == Estado.CANCELADA || estado == Estado.FALLIDA;
+    }
+
+    public void solicitarCancelacion() {
+        cancelacionSolicitada.set(true);
+    }
+
+    public void iniciar() {
+        inicio = Instant.now();
+        estado = Estado.EN_CURSO;
+    }
+
+    public void registrarLote(int filas) {
+        borrados.addAndGet(filas);
+        lotes++;
+    }
+
+    public void terminar(Estado estadoFinal, String mensajeError) {
+        error = mensajeError;
+        fin = Instant.now();
+        estado = estadoFinal;
+    }
+}
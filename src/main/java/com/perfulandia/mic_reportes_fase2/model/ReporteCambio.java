@@ -0,0 +1,64 @@
+package com.perfulandia.mic_reportes_fase2.model;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name="reportes_cambios")
+
+
+/*Entrada del registro de cambios de reportes. La secuencia crece con cada cambio y sirve de cursor
+ para los sistemas que sincronizan de forma incremental. En INSERT y UPDATE se guarda el estado
+ del reporte despues del cambio; en DELETE solo el id. `registradoEn` lo asigna la base de datos
+ (DEFAULT CURRENT_TIMESTAMP(6)) y no se rellena en la entidad recien guardada. */
+
+public class ReporteCambio {
+
+    public static final String INSERT = "INSERT";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    @Id
+    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    private Long secuencia;
+
+    @Column(nullable = false)
+    private Long reporteId;
+
+    @Column(length = 10, nullable = false)
+    private String operacion;
+
+    private String id_areaReporte;
+
+    private String id_usuario;
+
+    @Column(length = 1000)
+    private String mensajeReporte;
+
+    private Date fechaReporte;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private LocalDateTime registradoEn;
+
+    public static ReporteCambio de(String operacion, Reportes reporte) {
+        return new ReporteCambio(null, reporte.getId(), operacion, reporte.getId_areaReporte(), reporte.getId_usuario(),
+                reporte.getMensajeReporte(), reporte.getFechaReporte(), null);
+    }
+
+    public static ReporteCambio borrado(Long reporteId) {
+        return new ReporteCambio(null, reporteId, DELETE, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.perfulandia.mic_reportes_fase2.repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+
+/*Traduce un `FiltroReportes` a condiciones SQL sobre la tabla `reportes` y sus parametros, en el mismo orden.
+ Lo usan las consultas JDBC que no pasan por JPA (purgas por lotes y consultas repartidas entre shards). */
+
+public final class FiltroReportesSql {
+
+    private FiltroReportesSql() {
+    }
+
+    public static List<String> condiciones(FiltroReportes filtro) {
+        List<String> condiciones = new ArrayList<>();
+        if (filtro.getId_areaReporte() != null) {
+            condiciones.add("id_area_reporte = ?");
+        }
+        if (filtro.getId_usuario() != null) {
+            condiciones.add("id_usuario = ?");
+        }
+        if (filtro.getDesde() != null) {
+            condiciones.add("fecha_reporte >= ?");
+        }
+        if (filtro.getHasta() != null) {
+            condiciones.add("fecha_reporte <= ?");
+        }
+        return condiciones;
+    }
+
+    // Clausula WHERE completa, o cadena vacia si el filtro no restringe nada
+    public static String where(FiltroReportes filtro) {
+        List<String> condiciones = condiciones(filtro);
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+
+    public static Object[] parametros(FiltroReportes filtro) {
+        List<Object> parametros = new ArrayList<>();
+        if (filtro.getId_areaReporte() != null) {
+            parametros.add(filtro.getId_areaReporte());
+        }
+        if (filtro.getId_usuario() != null) {
+            parametros.add(filtro.getId_usuario());
+        }
+        if (filtro.getDesde() != null) {
+            parametros.add(Date.valueOf(filtro.getDesde()));
+        }
+        if (filtro.getHasta() != null) {
+            parametros.add(Date.valueOf(filtro.getHasta()));
+        }
+        return parametros.toArray();
+    }
+}
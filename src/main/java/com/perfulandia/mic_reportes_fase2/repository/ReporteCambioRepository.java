@@ -0,0 +1,35 @@
+package com.perfulandia.mic_reportes_fase2.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
+
+/*Repositorio del registro de cambios de reportes: lectura por cursor (secuencia) y compactacion por lotes. */
+
+public interface ReporteCambioRepository extends JpaRepository<ReporteCambio, Long>{
+    // El corte de visibilidad se calcula con el reloj de la base de datos, el mismo que asigna registrado_en
+    @Query(value = "SELECT * FROM reportes_cambios WHERE secuencia > :secuencia"
+            + " AND registrado_en < TIMESTAMPADD(MICROSECOND, :retrasoMicros, CURRENT_TIMESTAMP(6))"
+            + " ORDER BY secuencia LIMIT :limite", nativeQuery = true)
+    List<ReporteCambio> findVisiblesDesde(@Param("secuencia") long secuencia, @Param("retrasoMicros") long retrasoMicros,
+            @Param("limite") int limite);
+
+    @Query("select min(c.secuencia) from ReporteCambio c")
+    Long findMinSecuencia();
+
+    @Query("select max(c.secuencia) from ReporteCambio c")
+    Long findMaxSecuencia();
+
+    @Transactional
+    @Modifying
+    // El corte se calcula con el reloj de la base de datos, el mismo que asigna registrado_en
+    @Query(value = "DELETE FROM reportes_cambios WHERE registrado_en < TIMESTAMPADD(DAY, -:dias, CURRENT_TIMESTAMP(6))"
+            + " AND secuencia < :maxima LIMIT :lote", nativeQuery = true)
+    int borrarAnteriores(@Param("dias") int dias, @Param("maxima") Long maxima, @Param("lote") int lote);
+}
@@ -1,9 +1,15 @@
 package com.perfulandia.mic_reportes_fase2.repository;
 
+import java.sql.Date;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.perfulandia.mic_reportes_fase2.model.Reportes;
 
@@ -14,6 +20,23 @@ public interface ReportesRepository extends JpaRepository<Reportes, Long>{
     List<Reportes> findAll(); 
     Optional<Reportes> findById(Long id);
     boolean existsById(Long id);
+
+    // A diferencia de deleteById, devuelve cuantas filas borro (0 si el id no existia) en una sola sentencia
+    @Modifying
+    @Query("delete from Reportes r where r.id = :id")
+    int borrarPorId(@Param("id") Long id);
+
+    // Los criterios nulos no filtran, igual que en FiltroReportes
+    @Query("select r from Reportes r where (:area is null or r.id_areaReporte = :area)"
+            + " and (:usuario is null or r.id_usuario = :usuario)"
+            + " and (:desde is null or r.fechaReporte >= :desde)"
+            + " and (:hasta is null or r.fechaReporte <= :hasta)")
+    Page<Reportes> buscar(@Param("area") String area, @Param("usuario") String usuario,
+            @Param("desde") Date desde, @Param("hasta") Date hasta, Pageable pageable);
+
+    // Cada fila es [id_areaReporte, cantidad]
+    @Query("select r.id_areaReporte, count(r) from Reportes r group by r.id_areaReporte")
+    List<Object[]> contarPorArea();
 }
 
 
@@ -0,0 +1,12 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+/*Se lanza al pedir el registro de cambios con sharding habilitado. En ese modo cada reporte se escribe
+ en su shard y no se anota ningun cambio, asi que el registro no reflejaria las escrituras.
+ Se traduce a 501 NOT_IMPLEMENTED en ReportesExceptionHandler. */
+
+public class CambiosNoDisponiblesException extends RuntimeException {
+
+    public CambiosNoDisponiblesException() {
+        super("El registro de cambios no esta disponible con reportes.sharding.habilitado=true");
+    }
+}
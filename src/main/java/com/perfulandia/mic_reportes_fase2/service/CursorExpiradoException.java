@@ -0,0 +1,19 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+/*Se lanza cuando el cursor pedido es anterior a los cambios que aun conserva el registro
+ (ya fueron compactados). El cliente debe hacer una sincronizacion completa y continuar
+ desde el cursor indicado. Se traduce a 410 GONE en ReportesExceptionHandler. */
+
+public class CursorExpiradoException extends RuntimeException {
+
+    private final long cursorMinimo;
+
+    public CursorExpiradoException(long cursorPedido, long cursorMinimo) {
+        super("El cursor " + cursorPedido + " ya no esta disponible; el minimo es " + cursorMinimo);
+        this.cursorMinimo = cursorMinimo;
+    }
+
+    public long getCursorMinimo() {
+        return cursorMinimo;
+    }
+}
@@ -0,0 +1,95 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.perfulandia.mic_reportes_fase2.model.PaginaCambios;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
+import com.perfulandia.mic_reportes_fase2.repository.ReporteCambioRepository;
+
+/*Lectura y compactacion del registro de cambios de reportes. Los cambios los escribe ReportesService
+ (y ReportesPurgaService) en la misma transaccion que el cambio del reporte.
+
+ Las secuencias AUTO_INCREMENT se asignan al insertar pero se hacen visibles al confirmar, de modo que una
+ transaccion lenta podria aparecer con una secuencia menor que otra ya leida. Para no saltarse cambios,
+ solo se sirven los registrados hace mas de `reportes.cambios.retraso-visibilidad-ms`. Esto supone que entre
+ el INSERT de la fila de cambio y el COMMIT pasa menos que ese retraso:
+ - `registrado_en` y el corte se toman del reloj de la base de datos, asi que el desfase entre instancias no cuenta;
+ - la fila de cambio es la ultima sentencia de su transaccion (ReportesService vuelca antes el reporte),
+   de modo que las esperas por bloqueos del reporte ocurren antes de que exista la secuencia;
+ - `reportes.cambios.timeout-transaccion-segundos` acota las transacciones que anotan cambios (las de
+   ReportesService y los lotes de purga en la base principal) y debe ser menor que el retraso; al arrancar se
+   avisa si no lo es. El resto de transacciones del servicio no tiene ese limite.
+
+ Con sharding habilitado el registro de cambios no esta soportado: los reportes viven en los shards y no se
+ anotan cambios, de modo que cambiosDesde responde con CambiosNoDisponiblesException. */
+
+@Service
+public class ReportesCambiosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportesCambiosService.class);
+
+    private final ReporteCambioRepository cambioRepository;
+    private final long retrasoVisibilidadMs;
+    private final int retencionDias;
+    private final int loteCompactacion;
+    private final boolean sharding;
+
+    public ReportesCambiosService(ReporteCambioRepository cambioRepository,
+            @Value("${reportes.cambios.retraso-visibilidad-ms:5000}") long retrasoVisibilidadMs,
+            @Value("${reportes.cambios.retencion-dias:7}") int retencionDias,
+            @Value("${reportes.cambios.lote-compactacion:5000}") int loteCompactacion,
+            @Value("${reportes.cambios.timeout-transaccion-segundos:3}") int timeoutTransaccionSegundos,
+            @Value("${reportes.sharding.habilitado:false}") boolean sharding) {
+        if (timeoutTransaccionSegundos <= 0 || TimeUnit.SECONDS.toMillis(timeoutTransaccionSegundos) >= retrasoVisibilidadMs) {
+            log.warn("reportes.cambios.timeout-transaccion-segundos ({}) no es menor que reportes.cambios.retraso-visibilidad-ms ({} ms): "
+                    + "una transaccion mas larga que el retraso puede hacer que GET /changes se salte su cambio",
+                    timeoutTransaccionSegundos <= 0 ? "sin limite" : timeoutTransaccionSegundos + " s", retrasoVisibilidadMs);
+        }
+        this.cambioRepository = cambioRepository;
+        this.retrasoVisibilidadMs = retrasoVisibilidadMs;
+        this.retencionDias = retencionDias;
+        this.loteCompactacion = loteCompactacion;
+        this.sharding = sharding;
+    }
+
+    public PaginaCambios cambiosDesde(long since, int limite) {
+        if (sharding) {
+            throw new CambiosNoDisponiblesException();
+        }
+        Long minima = cambioRepository.findMinSecuencia();
+        if (minima != null && since < minima - 1) {
+            throw new CursorExpiradoException(since, minima - 1);
+        }
+        List<ReporteCambio> cambios = cambioRepository.findVisiblesDesde(since, -retrasoVisibilidadMs * 1000, limite);
+        long siguiente = cambios.isEmpty() ? since : cambios.get(cambios.size() - 1).getSecuencia();
+        return new PaginaCambios(cambios, siguiente, cambios.size() == limite);
+    }
+
+    /*Borra por lotes los cambios mas antiguos que la retencion. Siempre se conserva el ultimo cambio,
+     para que un cursor anterior a lo compactado se pueda detectar aunque no haya actividad reciente. */
+    @Scheduled(fixedDelayString = "${reportes.cambios.compactacion-ms:3600000}",
+            initialDelayString = "${reportes.cambios.compactacion-ms:3600000}")
+    public long compactar() {
+        Long maxima = cambioRepository.findMaxSecuencia();
+        if (maxima == null) {
+            return 0;
+        }
+        long borrados = 0;
+        int filas;
+        do {
+            filas = cambioRepository.borrarAnteriores(retencionDias, maxima, loteCompactacion);
+            borrados += filas;
+        } while (filas == loteCompactacion);
+        if (borrados > 0) {
+            log.info("Compactados {} cambios de reportes de hace mas de {} dias", borrados, retencionDias);
+        }
+        return borrados;
+    }
+}
@@ -0,0 +1,228 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaTopUsuarios;
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaUsuariosDistintos;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.sketch.CountMinSketch;
+import com.perfulandia.mic_reportes_fase2.sketch.HyperLogLog;
+import com.perfulandia.mic_reportes_fase2.sharding.ReportesShardedRepository;
+import com.perfulandia.mic_reportes_fase2.sketch.SpaceSaving;
+
+import jakarta.annotation.PostConstruct;
+
+/*Estadisticas aproximadas de reportes mantenidas en memoria, sin consultas COUNT(DISTINCT) sobre la tabla.
+ Por cada dia se guarda un HyperLogLog de usuarios por area, un Count-Min con la frecuencia de cada usuario
+ y un resumen Space-Saving con los usuarios mas activos. ReportesService.save alimenta los sketches con
+ cada reporte nuevo; las consultas combinan los dias pedidos, asi que su coste depende solo del numero
+ de dias y no del tamaño de la tabla. La memoria por dia esta acotada: como mucho MAXIMO_AREAS_POR_DIA
+ HyperLogLog (el resto de areas cuenta como "otros"), un Count-Min y un Space-Saving de tamaño fijo.
+ Los sketches se guardan periodicamente en disco y se pueden reconstruir leyendo la tabla
+ (con sharding habilitado, la tabla de cada shard, uno tras otro). */
+
+@Service
+public class ReportesEstadisticasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportesEstadisticasService.class);
+
+    private static final int PRECISION_HLL = 14;
+    private static final double EPSILON_CMS = 0.001;
+    private static final double DELTA_CMS = 0.01;
+    private static final int CAPACIDAD_TOP = 1000;
+
+    /*id_areaReporte llega sin validar desde el cliente: a partir de este numero de areas distintas en un dia,
+     las nuevas se acumulan en un unico HyperLogLog "otros" para que la memoria no crezca sin limite */
+    static final int MAXIMO_AREAS_POR_DIA = 64;
+    static final String AREA_OTROS = "otros";
+
+    /*Sketches de un dia. Se serializa tal cual en el checkpoint. */
+    static class SketchesDia implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final Map<String, HyperLogLog> usuariosPorArea = new ConcurrentHashMap<>();
+        final CountMinSketch frecuenciaUsuarios = new CountMinSketch(EPSILON_CMS, DELTA_CMS);
+        final SpaceSaving usuariosFrecuentes = new SpaceSaving(CAPACIDAD_TOP);
+
+        void registrar(String area, String usuario) {
+            String clave = usuariosPorArea.containsKey(area) || usuariosPorArea.size() < MAXIMO_AREAS_POR_DIA ? area : AREA_OTROS;
+            usuariosPorArea.computeIfAbsent(clave, nueva -> new HyperLogLog(PRECISION_HLL)).add(usuario);
+            frecuenciaUsuarios.add(usuario, 1);
+            usuariosFrecuentes.add(usuario, 1);
+        }
+
+        SketchesDia copia() {
+            SketchesDia copia = new SketchesDia();
+            usuariosPorArea.forEach((area, hll) -> copia.usuariosPorArea.put(area, hll.copia()));
+            copia.frecuenciaUsuarios.merge(frecuenciaUsuarios);
+            copia.usuariosFrecuentes.merge(usuariosFrecuentes);
+            return copia;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int diasRetenidos;
+    private final Path checkpoint;
+
+    private ReportesShardedRepository shardedRepository;
+
+    private volatile ConcurrentHashMap<LocalDate, SketchesDia> dias = new ConcurrentHashMap<>();
+
+    public ReportesEstadisticasService(JdbcTemplate jdbcTemplate,
+            @Value("${reportes.estadisticas.dias-retenidos:35}") int diasRetenidos,
+            @Value("${reportes.estadisticas.checkpoint:estadisticas/sketches.bin}") String checkpoint) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.diasRetenidos = diasRetenidos;
+        this.checkpoint = Path.of(checkpoint);
+    }
+
+    @Autowired(required = false)
+    void setShardedRepository(ReportesShardedRepository shardedRepository) {
+        this.shardedRepository = shardedRepository;
+    }
+
+    public void registrar(Reportes reporte) {
+        if (reporte.getFechaReporte() == null || reporte.getId_usuario() == null || reporte.getId_areaReporte() == null) {
+            return;
+        }
+        registrarEn(dias, reporte.getFechaReporte().toLocalDate(), reporte.getId_areaReporte(), reporte.getId_usuario());
+    }
+
+    public EstadisticaUsuariosDistintos usuariosDistintos(String area, LocalDate desde, LocalDate hasta) {
+        HyperLogLog combinado = new HyperLogLog(PRECISION_HLL);
+        for (SketchesDia dia : diasEntre(desde, hasta)) {
+            dia.usuariosPorArea.forEach((clave, hll) -> {
+                if (area == null || area.equals(clave)) {
+                    combinado.merge(hll);
+                }
+            });
+        }
+        long estimacion = combinado.estimate();
+        double error = combinado.errorEstandar();
+        return new EstadisticaUsuariosDistintos(area, desde, hasta, estimacion, error,
+                Math.max(0, Math.round(estimacion * (1 - 2 * error))), Math.round(estimacion * (1 + 2 * error)));
+    }
+
+    public EstadisticaTopUsuarios topUsuarios(LocalDate desde, LocalDate hasta, int n) {
+        CountMinSketch frecuencias = new CountMinSketch(EPSILON_CMS, DELTA_CMS);
+        SpaceSaving frecuentes = new SpaceSaving(CAPACIDAD_TOP);
+        for (SketchesDia dia : diasEntre(desde, hasta)) {
+            frecuencias.merge(dia.frecuenciaUsuarios);
+            frecuentes.merge(dia.usuariosFrecuentes);
+        }
+        // Ambos sketches sobreestiman, asi que el menor de los dos es la cota superior mas ajustada
+        List<EstadisticaTopUsuarios.UsuarioFrecuente> usuarios = frecuentes.top(n).stream()
+                .map(contador -> new EstadisticaTopUsuarios.UsuarioFrecuente(contador.clave(),
+                        Math.min(contador.cuenta(), frecuencias.estimate(contador.clave())),
+                        Math.max(0, contador.cuenta() - contador.error())))
+                .collect(Collectors.toList());
+        return new EstadisticaTopUsuarios(desde, hasta, frecuencias.getTotal(), frecuencias.errorMaximo(),
+                1 - frecuencias.getDelta(), usuarios);
+    }
+
+    /*Vuelve a calcular los sketches de los dias retenidos leyendo la tabla. Los reportes guardados
+     mientras dura la lectura pueden no quedar contados; la siguiente reconstruccion los recoge. */
+    public long reconstruir() {
+        ConcurrentHashMap<LocalDate, SketchesDia> nuevos = new ConcurrentHashMap<>();
+        long[] leidos = {0};
+        // JdbcTemplate propios: los del repositorio cortan las consultas al timeout del reparto en paralelo
+        List<JdbcTemplate> origenes = shardedRepository == null ? List.of(jdbcTemplate)
+                : shardedRepository.getFuentes().stream().map(JdbcTemplate::new).collect(Collectors.toList());
+        for (JdbcTemplate origen : origenes) {
+            origen.query("SELECT id_area_reporte, id_usuario, fecha_reporte FROM reportes WHERE fecha_reporte >= ?",
+                    (RowCallbackHandler) fila -> {
+                        registrarEn(nuevos, fila.getDate(3).toLocalDate(), fila.getString(1), fila.getString(2));
+                        leidos[0]++;
+                    },
+                    Date.valueOf(primerDiaRetenido()));
+        }
+        dias = nuevos;
+        log.info("Sketches de estadisticas reconstruidos a partir de {} reportes", leidos[0]);
+        return leidos[0];
+    }
+
+    @Scheduled(fixedDelayString = "${reportes.estadisticas.checkpoint-ms:60000}",
+            initialDelayString = "${reportes.estadisticas.checkpoint-ms:60000}")
+    public void guardarCheckpoint() {
+        descartarDiasAntiguos();
+        Map<LocalDate, SketchesDia> copia = new HashMap<>();
+        dias.forEach((dia, sketches) -> copia.put(dia, sketches.copia()));
+        try {
+            if (checkpoint.getParent() != null) {
+                Files.createDirectories(checkpoint.getParent());
+            }
+            Path temporal = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            try (OutputStream archivo = Files.newOutputStream(temporal);
+                    ObjectOutputStream salida = new ObjectOutputStream(archivo)) {
+                salida.writeObject(copia);
+            }
+            Files.move(temporal, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el checkpoint de estadisticas en {}", checkpoint, e);
+        }
+    }
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void cargarCheckpoint() {
+        if (!Files.exists(checkpoint)) {
+            log.info("Sin checkpoint de estadisticas en {}; se empieza vacio (POST /api/v1/reportes/estadisticas/reconstruccion para recalcular)", checkpoint);
+            return;
+        }
+        try (InputStream archivo = Files.newInputStream(checkpoint);
+                ObjectInputStream entrada = new ObjectInputStream(archivo)) {
+            dias = new ConcurrentHashMap<>((Map<LocalDate, SketchesDia>) entrada.readObject());
+            descartarDiasAntiguos();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Checkpoint de estadisticas ilegible en {}; se empieza vacio", checkpoint, e);
+        }
+    }
+
+    private void registrarEn(Map<LocalDate, SketchesDia> destino, LocalDate dia, String area, String usuario) {
+        // Solo dias dentro de la ventana retenida, para que la memoria quede acotada
+        if (dia.isBefore(primerDiaRetenido()) || dia.isAfter(LocalDate.now().plusDays(1))) {
+            return;
+        }
+        destino.computeIfAbsent(dia, clave -> new SketchesDia()).registrar(area, usuario);
+    }
+
+    private List<SketchesDia> diasEntre(LocalDate desde, LocalDate hasta) {
+        return dias.entrySet().stream()
+                .filter(entrada -> !entrada.getKey().isBefore(desde) && !entrada.getKey().isAfter(hasta))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private void descartarDiasAntiguos() {
+        LocalDate primero = primerDiaRetenido();
+        dias.keySet().removeIf(dia -> dia.isBefore(primero));
+    }
+
+    private LocalDate primerDiaRetenido() {
+        return LocalDate.now().minusDays(diasRetenidos - 1L);
+    }
+}
@@ -0,0 +1,197 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PurgaReportes;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
+import com.perfulandia.mic_reportes_fase2.repository.FiltroReportesSql;
+import com.perfulandia.mic_reportes_fase2.sharding.ReportesShardedRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/*Borrado masivo de reportes por filtro (area, usuario, rango de fechas).
+ En lugar de un DELETE por id, borra en lotes acotados (`SELECT id ... LIMIT n FOR UPDATE` y un DELETE de esos ids),
+ cada uno en su propia transaccion corta, para no mantener bloqueos largos sobre la tabla ni generar
+ transacciones enormes en el binlog que retrasen las replicas. Los ids de cada lote se anotan como DELETE
+ en el registro de cambios dentro de la misma transaccion. Entre lote y lote hace una pausa proporcional
+ a lo que tardo el lote. Las purgas corren de una en una en un hilo propio, informan su progreso
+ y se pueden cancelar entre lotes.
+ Con sharding habilitado la purga recorre los shards uno tras otro con los mismos lotes, cada uno en una
+ transaccion del propio shard, y no anota cambios: el registro de cambios no existe en ese modo. */
+
+@Service
+public class ReportesPurgaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportesPurgaService.class);
+
+    private static final int PURGAS_RECORDADAS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final long pausaMinimaMs;
+    private final double factorPausa;
+
+    private ReportesShardedRepository shardedRepository;
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "purga-reportes");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final Map<String, PurgaReportes> purgas = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PurgaReportes> mayor) {
+            return size() > PURGAS_RECORDADAS && mayor.getValue().isTerminada();
+        }
+    });
+
+    public ReportesPurgaService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${reportes.purga.tamano-lote:1000}") int tamanoLote,
+            @Value("${reportes.purga.pausa-minima-ms:50}") long pausaMinimaMs,
+            @Value("${reportes.purga.factor-pausa:1.0}") double factorPausa,
+            @Value("${reportes.cambios.timeout-transaccion-segundos:3}") int timeoutTransaccionSegundos) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Cada lote anota sus borrados en el registro de cambios: mismo limite que ReportesService (ver ReportesCambiosService)
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(timeoutTransaccionSegundos > 0 ? timeoutTransaccionSegundos : TransactionDefinition.TIMEOUT_DEFAULT);
+        this.tamanoLote = tamanoLote;
+        this.pausaMinimaMs = pausaMinimaMs;
+        this.factorPausa = factorPausa;
+    }
+
+    @Autowired(required = false)
+    void setShardedRepository(ReportesShardedRepository shardedRepository) {
+        this.shardedRepository = shardedRepository;
+    }
+
+    public PurgaReportes iniciar(FiltroReportes filtro) {
+        if (filtro == null || filtro.isVacio()) {
+            throw new IllegalArgumentException("La purga necesita al menos un criterio de filtro");
+        }
+        if (!filtro.isRangoValido()) {
+            throw new IllegalArgumentException("El rango de fechas de la purga es invalido: desde es posterior a hasta");
+        }
+        PurgaReportes purga = new PurgaReportes(UUID.randomUUID().toString(), filtro);
+        purgas.put(purga.getId(), purga);
+        ejecutor.execute(() -> ejecutar(purga));
+        return purga;
+    }
+
+    public Optional<PurgaReportes> findById(String id) {
+        return Optional.ofNullable(purgas.get(id));
+    }
+
+    public List<PurgaReportes> findAll() {
+        synchronized (purgas) {
+            return new ArrayList<>(purgas.values());
+        }
+    }
+
+    public Optional<PurgaReportes> cancelar(String id) {
+        Optional<PurgaReportes> purga = findById(id);
+        purga.ifPresent(PurgaReportes::solicitarCancelacion);
+        return purga;
+    }
+
+    private void ejecutar(PurgaReportes purga) {
+        purga.iniciar();
+        String sql = construirSeleccion(purga.getFiltro());
+        Object[] parametros = FiltroReportesSql.parametros(purga.getFiltro());
+        try {
+            for (Destino destino : destinos()) {
+                while (!purga.isCancelacionSolicitada()) {
+                    long inicioLote = System.nanoTime();
+                    Integer filas = destino.transaccion().execute(estado -> borrarLote(destino, sql, parametros));
+                    purga.registrarLote(filas == null ? 0 : filas);
+                    if (filas == null || filas < tamanoLote) {
+                        break;
+                    }
+                    pausar(System.nanoTime() - inicioLote);
+                }
+            }
+            purga.terminar(purga.isCancelacionSolicitada() ? PurgaReportes.Estado.CANCELADA : PurgaReportes.Estado.COMPLETADA, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            purga.terminar(PurgaReportes.Estado.CANCELADA, "Interrumpida");
+        } catch (RuntimeException e) {
+            log.error("Fallo la purga {} tras borrar {} reportes", purga.getId(), purga.getBorrados(), e);
+            purga.terminar(PurgaReportes.Estado.FALLIDA, e.getMessage());
+        }
+        log.info("Purga {} {}: {} reportes borrados en {} lotes", purga.getId(), purga.getEstado(),
+                purga.getBorrados(), purga.getLotes());
+    }
+
+    private List<Destino> destinos() {
+        if (shardedRepository == null) {
+            return List.of(new Destino(jdbcTemplate, transactionTemplate, true));
+        }
+        return shardedRepository.getFuentes().stream()
+                .map(fuente -> new Destino(new JdbcTemplate(fuente),
+                        new TransactionTemplate(new DataSourceTransactionManager(fuente)), false))
+                .collect(Collectors.toList());
+    }
+
+    // Deja respirar a la base de datos y a las replicas: al menos la pausa minima, o mas si el lote fue lento
+    private void pausar(long duracionLoteNanos) throws InterruptedException {
+        long pausa = Math.max(pausaMinimaMs, (long) (TimeUnit.NANOSECONDS.toMillis(duracionLoteNanos) * factorPausa));
+        Thread.sleep(pausa);
+    }
+
+    // Debe ejecutarse dentro de la transaccion del lote: los ids quedan bloqueados hasta el DELETE
+    private int borrarLote(Destino destino, String seleccion, Object[] parametros) {
+        List<Long> ids = destino.jdbcTemplate().queryForList(seleccion, Long.class, parametros);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String marcadores = String.join(",", Collections.nCopies(ids.size(), "?"));
+        destino.jdbcTemplate().update("DELETE FROM reportes WHERE id IN (" + marcadores + ")", ids.toArray());
+        if (destino.registrarCambios()) {
+            destino.jdbcTemplate().batchUpdate("INSERT INTO reportes_cambios (reporte_id, operacion) VALUES (?, ?)",
+                    ids.stream().map(id -> new Object[]{id, ReporteCambio.DELETE}).collect(Collectors.toList()));
+        }
+        return ids.size();
+    }
+
+    /*Todo filtro tiene un indice (V2 para area y usuario, V5 para solo fechas), asi que el FOR UPDATE solo
+     bloquea las filas que recorre el lote. Sin ORDER BY el motor recorre el indice usado por el filtro, que es lo mas barato;
+     los ids se vuelven a borrar por clave primaria, asi que el lote es exacto tambien en las replicas. */
+    private String construirSeleccion(FiltroReportes filtro) {
+        return "SELECT id FROM reportes WHERE " + String.join(" AND ", FiltroReportesSql.condiciones(filtro)) + " LIMIT " + tamanoLote + " FOR UPDATE";
+    }
+
+    // Base de datos sobre la que se borra: la principal o cada uno de los shards
+    private record Destino(JdbcTemplate jdbcTemplate, TransactionTemplate transaccion, boolean registrarCambios) {
+    }
+
+    @PreDestroy
+    public void detener() {
+        synchronized (purgas) {
+            purgas.values().forEach(PurgaReportes::solicitarCancelacion);
+        }
+        ejecutor.shutdown();
+    }
+}
@@ -1,44 +1,160 @@
 package com.perfulandia.mic_reportes_fase2.service;
 
+import java.sql.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.perfulandia.mic_reportes_fase2.concurrency.ReportesAdmissionControl;
+import com.perfulandia.mic_reportes_fase2.concurrency.SingleFlight;
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PaginaReportes;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
 import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.repository.ReporteCambioRepository;
 import com.perfulandia.mic_reportes_fase2.repository.ReportesRepository;
+import com.perfulandia.mic_reportes_fase2.sharding.ReportesShardedRepository;
 
 /*El `ReportesService` (anotado con `@Service`) es un componente Spring que actúa como intermediario entre 
 el controlador y el repositorio (`JpaRepository`). Usando el repositorio inyectado (`@Autowired`), 
 gestiona operaciones CRUD básicas como buscar, guardar o eliminar reportes,
- y permite añadir lógica de negocio adicional (validaciones, transformaciones) alrededor de estas operaciones. */
+ y permite añadir lógica de negocio adicional (validaciones, transformaciones) alrededor de estas operaciones.
+ Todas las operaciones pasan por `ReportesAdmissionControl`, que rechaza con 503 cuando la base de datos está saturada.
+ Sin sharding, cada escritura agrega su entrada al registro de cambios (`reportes_cambios`) en la misma transacción.
+ Las lecturas idénticas concurrentes se agrupan con `SingleFlight`: una sola consulta por clave y el resto espera su resultado.
+ Con `reportes.sharding.habilitado=true` los reportes se leen y escriben en los shards (`ReportesShardedRepository`);
+ cada escritura es una única sentencia en su shard, no se anota ningún cambio y GET /changes responde 501. */
 
 @Service
 public class ReportesService {
     @Autowired
     private ReportesRepository reportesRepository;
 
+    @Autowired
+    private ReportesAdmissionControl admissionControl;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ReportesEstadisticasService estadisticasService;
+
+    @Autowired
+    private ReporteCambioRepository cambioRepository;
+
+    // Solo existe con reportes.sharding.habilitado=true
+    @Autowired(required = false)
+    private ReportesShardedRepository shardedRepository;
+
+    // La transaccion se abre despues de pasar el control de admision, para no ocupar una conexion al rechazar
+    private TransactionTemplate transactionTemplate;
+
+    /*Plantilla propia: las escrituras anotan su cambio y no pueden durar mas que el retraso de visibilidad
+     del registro de cambios (ver ReportesCambiosService). Un valor <= 0 deja la transaccion sin limite. */
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager,
+            @Value("${reportes.cambios.timeout-transaccion-segundos:3}") int timeoutTransaccionSegundos) {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout(timeoutTransaccionSegundos > 0 ? timeoutTransaccionSegundos : TransactionDefinition.TIMEOUT_DEFAULT);
+    }
+
     public List<Reportes> findAll(){
-        return reportesRepository.findAll();
+        return singleFlight.ejecutar("findAll",
+                () -> admissionControl.lectura(() -> shardedRepository != null ? shardedRepository.findAll() : reportesRepository.findAll()),
+                reportes -> reportes.stream().map(ReportesService::copiar).collect(Collectors.toList()));
     }
 
     public Optional<Reportes> findById(Long id){
-        return reportesRepository.findById(id);
+        return singleFlight.ejecutar("findById",
+                () -> admissionControl.lectura(() -> shardedRepository != null ? shardedRepository.findById(id) : reportesRepository.findById(id)),
+                reporte -> reporte.map(ReportesService::copiar),
+                id);
     }
 
     public boolean existsById(Long id) {
-        return reportesRepository.existsById(id);
+        return singleFlight.ejecutar("existsById",
+                () -> admissionControl.lectura(() -> shardedRepository != null ? shardedRepository.existsById(id) : reportesRepository.existsById(id)),
+                existe -> existe,
+                id);
+    }
+
+    // Pagina ordenada por id; con shards se consulta cada uno en paralelo y se fusionan los resultados
+    public PaginaReportes buscar(FiltroReportes filtro, int pagina, int tamano) {
+        return admissionControl.lectura(() -> {
+            if (shardedRepository != null) {
+                return shardedRepository.buscar(filtro, pagina, tamano);
+            }
+            Page<Reportes> resultado = reportesRepository.buscar(filtro.getId_areaReporte(), filtro.getId_usuario(),
+                    filtro.getDesde() == null ? null : Date.valueOf(filtro.getDesde()),
+                    filtro.getHasta() == null ? null : Date.valueOf(filtro.getHasta()),
+                    PageRequest.of(pagina, tamano, Sort.by("id")));
+            return new PaginaReportes(resultado.getContent(), pagina, tamano, resultado.getTotalElements());
+        });
+    }
+
+    public Map<String, Long> contarPorArea() {
+        return singleFlight.ejecutar("contarPorArea",
+                () -> admissionControl.lectura(() -> {
+                    if (shardedRepository != null) {
+                        return shardedRepository.contarPorArea();
+                    }
+                    Map<String, Long> cantidades = new TreeMap<>();
+                    reportesRepository.contarPorArea().forEach(fila -> cantidades.put((String) fila[0], ((Number) fila[1]).longValue()));
+                    return cantidades;
+                }),
+                TreeMap::new);
     }
 
     // metodos adicionales 
 
     public Reportes save(Reportes reporte){
-        return reportesRepository.save(reporte);
+        boolean nuevo = reporte.getId() == null;
+        // Con sharding la escritura es una unica sentencia en el shard y no se anota cambio (ver ReportesCambiosService)
+        Reportes guardado = admissionControl.escritura(reporte.getId_usuario(), () -> shardedRepository != null
+                ? shardedRepository.save(reporte)
+                : transactionTemplate.execute(estado -> {
+                    // El UPDATE se vuelca antes de insertar el cambio: las esperas por bloqueos no retrasan su secuencia
+                    Reportes resultado = reportesRepository.save(reporte);
+                    reportesRepository.flush();
+                    cambioRepository.save(ReporteCambio.de(nuevo ? ReporteCambio.INSERT : ReporteCambio.UPDATE, resultado));
+                    return resultado;
+                }));
+        // Solo los reportes nuevos cuentan para las estadisticas; una actualizacion no es otro reporte
+        if (nuevo) {
+            estadisticasService.registrar(guardado);
+        }
+        return guardado;
     }
 
     public void deleteById(Long id){
-        reportesRepository.deleteById(id);
+        if (shardedRepository != null) {
+            admissionControl.escrituraSinRetorno(null, () -> shardedRepository.deleteById(id));
+            return;
+        }
+        admissionControl.escrituraSinRetorno(null, () -> transactionTemplate.executeWithoutResult(estado -> {
+            // Borrar un id inexistente no cambia nada, asi que no se anota en el registro de cambios
+            if (reportesRepository.borrarPorId(id) > 0) {
+                cambioRepository.save(ReporteCambio.borrado(id));
+            }
+        }));
+    }
+
+    // Las llamadas agrupadas reciben su propia copia: la entidad original pertenece al EntityManager de otra peticion
+    private static Reportes copiar(Reportes reporte) {
+        return new Reportes(reporte.getId(), reporte.getId_areaReporte(), reporte.getId_usuario(),
+                reporte.getMensajeReporte(), reporte.getFechaReporte());
     }
 
 }
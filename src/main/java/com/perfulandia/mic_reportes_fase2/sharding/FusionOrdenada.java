@@ -0,0 +1,43 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*Fusion de k listas ya ordenadas (una por shard) en una sola, en O(n log k) con una cola de prioridad.
+ Permite saltar las primeras filas y cortar al llegar al limite, para paginar sin ordenar todo de nuevo. */
+
+final class FusionOrdenada {
+
+    private FusionOrdenada() {
+    }
+
+    static <T> List<T> fusionar(List<List<T>> listas, Comparator<? super T> orden, long saltar, int limite) {
+        PriorityQueue<Cabeza<T>> cola = new PriorityQueue<>(Math.max(1, listas.size()), (a, b) -> orden.compare(a.valor, b.valor));
+        for (List<T> lista : listas) {
+            Iterator<T> iterador = lista.iterator();
+            if (iterador.hasNext()) {
+                cola.add(new Cabeza<>(iterador.next(), iterador));
+            }
+        }
+        List<T> resultado = new ArrayList<>(Math.min(limite, 1024));
+        long saltadas = 0;
+        while (!cola.isEmpty() && resultado.size() < limite) {
+            Cabeza<T> cabeza = cola.poll();
+            if (saltadas < saltar) {
+                saltadas++;
+            } else {
+                resultado.add(cabeza.valor);
+            }
+            if (cabeza.resto.hasNext()) {
+                cola.add(new Cabeza<>(cabeza.resto.next(), cabeza.resto));
+            }
+        }
+        return resultado;
+    }
+
+    private record Cabeza<T>(T valor, Iterator<T> resto) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/*Ids globalmente unicos sin AUTO_INCREMENT por shard, al estilo Snowflake. De mayor a menor bit:
+ 41 bits de milisegundos desde 2024-01-01, 10 bits de secuencia, 6 bits de shard y 6 bits de nodo.
+ El shard va dentro del id, asi que una busqueda por id sabe a que base ir sin consultar ninguna.
+ Los ids de una instancia crecen siempre, sea cual sea el shard, y los de todas crecen con el tiempo,
+ que es el orden en que se fusionan las consultas repartidas.
+ Si el reloj retrocede se sigue usando el ultimo milisegundo emitido en vez de repetir ids.
+ Los ids pasan de 2^53, por eso en JSON viajan como texto (ver ReportesIdComoTexto). */
+
+public class GeneradorIds {
+
+    static final long EPOCA_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int BITS_SECUENCIA = 10;
+    static final int BITS_NODO = 6;
+    static final int BITS_SHARD = 6;
+
+    public static final int MAXIMO_SHARDS = 1 << BITS_SHARD;
+    public static final int MAXIMO_NODOS = 1 << BITS_NODO;
+
+    private static final long MASCARA_SECUENCIA = (1L << BITS_SECUENCIA) - 1;
+    private static final int DESPLAZAMIENTO_NODO = 0;
+    private static final int DESPLAZAMIENTO_SHARD = BITS_NODO;
+    private static final int DESPLAZAMIENTO_SECUENCIA = BITS_NODO + BITS_SHARD;
+    private static final int DESPLAZAMIENTO_TIEMPO = BITS_NODO + BITS_SHARD + BITS_SECUENCIA;
+
+    private final int nodo;
+    private final LongSupplier reloj;
+
+    private long ultimoMs = -1;
+    private long secuencia;
+
+    public GeneradorIds(int nodo) {
+        this(nodo, System::currentTimeMillis);
+    }
+
+    GeneradorIds(int nodo, LongSupplier reloj) {
+        if (nodo < 0 || nodo >= MAXIMO_NODOS) {
+            throw new IllegalArgumentException("El nodo debe estar entre 0 y " + (MAXIMO_NODOS - 1) + ": " + nodo);
+        }
+        this.nodo = nodo;
+        this.reloj = reloj;
+    }
+
+    public synchronized long siguiente(int shard) {
+        if (shard < 0 || shard >= MAXIMO_SHARDS) {
+            throw new IllegalArgumentException("Shard fuera de rango: " + shard);
+        }
+        long ahora = Math.max(reloj.getAsLong(), ultimoMs);
+        if (ahora == ultimoMs) {
+            secuencia = (secuencia + 1) & MASCARA_SECUENCIA;
+            if (secuencia == 0) {
+                // Secuencia agotada en este milisegundo: se pasa al siguiente
+                ahora = esperarSiguienteMs(ultimoMs);
+            }
+        } else {
+            secuencia = 0;
+        }
+        ultimoMs = ahora;
+        return ((ahora - EPOCA_MS) << DESPLAZAMIENTO_TIEMPO)
+                | (secuencia << DESPLAZAMIENTO_SECUENCIA)
+                | ((long) shard << DESPLAZAMIENTO_SHARD)
+                | ((long) nodo << DESPLAZAMIENTO_NODO);
+    }
+
+    public static int shardDe(long id) {
+        return (int) ((id >>> DESPLAZAMIENTO_SHARD) & (MAXIMO_SHARDS - 1));
+    }
+
+    private long esperarSiguienteMs(long ms) {
+        long ahora = reloj.getAsLong();
+        while (ahora <= ms) {
+            Thread.onSpinWait();
+            ahora = reloj.getAsLong();
+        }
+        return ahora;
+    }
+}
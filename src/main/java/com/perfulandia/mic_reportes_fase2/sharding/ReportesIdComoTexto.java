@@ -0,0 +1,14 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/*Mixin de Jackson para Reportes que ShardingConfig registra con el sharding activo. Los ids de GeneradorIds
+ rondan 3.7e17, por encima de 2^53, y un cliente JavaScript los redondearia al leerlos como numero,
+ asi que se escriben como texto. Al leer, Jackson acepta el id tanto en texto como en numero. */
+
+abstract class ReportesIdComoTexto {
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+}
@@ -0,0 +1,223 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PaginaReportes;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.repository.FiltroReportesSql;
+import com.perfulandia.mic_reportes_fase2.sql.SqlRequestStats;
+
+/*Repositorio de reportes repartido entre varias bases de datos con el mismo esquema (tabla `reportes`).
+ Las escrituras y las lecturas por id van a un unico shard (ver ShardRouter). Los listados, filtros
+ y agregados se lanzan en paralelo contra todos los shards y se combinan: las filas se fusionan por id
+ (cada shard ya las devuelve ordenadas) y los conteos se suman. Para la pagina p de tamano t cada shard
+ devuelve como mucho (p + 1) * t filas, por eso las paginas profundas se limitan en el controlador.
+ Los ids los genera GeneradorIds; el AUTO_INCREMENT de cada shard no se usa. */
+
+public class ReportesShardedRepository implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportesShardedRepository.class);
+
+    private static final String COLUMNAS = "id, id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte";
+
+    private static final RowMapper<Reportes> MAPEO = (rs, fila) -> new Reportes(rs.getLong("id"),
+            rs.getString("id_area_reporte"), rs.getString("id_usuario"), rs.getString("mensaje_reporte"),
+            rs.getDate("fecha_reporte"));
+
+    private static final Comparator<Reportes> POR_ID = Comparator.comparing(Reportes::getId);
+
+    private final List<DataSource> fuentes;
+    private final List<JdbcTemplate> shards;
+    private final ShardRouter router;
+    private final GeneradorIds generadorIds;
+    private final long timeoutMs;
+    private final long retryAfterSegundos;
+    private final ExecutorService ejecutor;
+
+    public ReportesShardedRepository(List<DataSource> fuentes, ShardRouter router, GeneradorIds generadorIds,
+            long timeoutMs, int hilosPorShard, long retryAfterSegundos) {
+        if (fuentes.size() != router.getShards()) {
+            throw new IllegalArgumentException("El router espera " + router.getShards() + " shards y hay " + fuentes.size());
+        }
+        this.fuentes = List.copyOf(fuentes);
+        this.router = router;
+        this.generadorIds = generadorIds;
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSegundos = retryAfterSegundos;
+        // El timeout de JDBC corta en el servidor las consultas que el reparto ya dio por perdidas
+        int timeoutSegundos = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999));
+        this.shards = this.fuentes.stream().map(fuente -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(fuente);
+            jdbcTemplate.setQueryTimeout(timeoutSegundos);
+            return jdbcTemplate;
+        }).toList();
+        AtomicInteger hilos = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(fuentes.size() * Math.max(1, hilosPorShard), tarea -> {
+            Thread hilo = new Thread(tarea, "shard-consulta-" + hilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    public Optional<Reportes> findById(Long id) {
+        int shard = router.shardDeId(id);
+        if (shard < 0) {
+            return Optional.empty();
+        }
+        return shards.get(shard).query("SELECT " + COLUMNAS + " FROM reportes WHERE id = ?", MAPEO, id)
+                .stream().findFirst();
+    }
+
+    public boolean existsById(Long id) {
+        int shard = router.shardDeId(id);
+        if (shard < 0) {
+            return false;
+        }
+        Long cantidad = shards.get(shard).queryForObject("SELECT COUNT(*) FROM reportes WHERE id = ?", Long.class, id);
+        return cantidad != null && cantidad > 0;
+    }
+
+    // Igual que JpaRepository.save: asigna el id a un reporte nuevo y devuelve la misma instancia
+    public Reportes save(Reportes reporte) {
+        if (reporte.getId() == null) {
+            int shard = router.shardPara(reporte);
+            reporte.setId(generadorIds.siguiente(shard));
+            shards.get(shard).update("INSERT INTO reportes (" + COLUMNAS + ") VALUES (?, ?, ?, ?, ?)",
+                    reporte.getId(), reporte.getId_areaReporte(), reporte.getId_usuario(),
+                    reporte.getMensajeReporte(), reporte.getFechaReporte());
+            return reporte;
+        }
+        int shard = router.shardDeId(reporte.getId());
+        int filas = shard < 0 ? 0 : shards.get(shard).update(
+                "UPDATE reportes SET id_area_reporte = ?, id_usuario = ?, mensaje_reporte = ?, fecha_reporte = ? WHERE id = ?",
+                reporte.getId_areaReporte(), reporte.getId_usuario(), reporte.getMensajeReporte(),
+                reporte.getFechaReporte(), reporte.getId());
+        if (filas == 0) {
+            throw new EmptyResultDataAccessException("No existe el reporte " + reporte.getId(), 1);
+        }
+        return reporte;
+    }
+
+    // Filas borradas: 0 si el id no existia
+    public int deleteById(Long id) {
+        int shard = router.shardDeId(id);
+        return shard < 0 ? 0 : shards.get(shard).update("DELETE FROM reportes WHERE id = ?", id);
+    }
+
+    public List<Reportes> findAll() {
+        List<List<Reportes>> porShard = enTodos("findAll",
+                shard -> shard.query("SELECT " + COLUMNAS + " FROM reportes ORDER BY id", MAPEO));
+        return FusionOrdenada.fusionar(porShard, POR_ID, 0, Integer.MAX_VALUE);
+    }
+
+    public PaginaReportes buscar(FiltroReportes filtro, int pagina, int tamano) {
+        String where = FiltroReportesSql.where(filtro);
+        Object[] parametros = FiltroReportesSql.parametros(filtro);
+        long saltar = (long) pagina * tamano;
+        long limite = saltar + tamano;
+        List<PaginaShard> porShard = enTodos("buscar", shard -> {
+            Object[] conLimite = Arrays.copyOf(parametros, parametros.length + 1);
+            conLimite[parametros.length] = limite;
+            List<Reportes> filas = shard.query("SELECT " + COLUMNAS + " FROM reportes" + where + " ORDER BY id LIMIT ?",
+                    MAPEO, conLimite);
+            Long total = shard.queryForObject("SELECT COUNT(*) FROM reportes" + where, Long.class, parametros);
+            return new PaginaShard(filas, total == null ? 0 : total);
+        });
+        List<List<Reportes>> filas = new ArrayList<>(porShard.size());
+        long total = 0;
+        for (PaginaShard parcial : porShard) {
+            filas.add(parcial.filas());
+            total += parcial.total();
+        }
+        return new PaginaReportes(FusionOrdenada.fusionar(filas, POR_ID, saltar, tamano), pagina, tamano, total);
+    }
+
+    public Map<String, Long> contarPorArea() {
+        List<List<Map<String, Object>>> porShard = enTodos("contarPorArea", shard -> shard.queryForList(
+                "SELECT id_area_reporte AS area, COUNT(*) AS cantidad FROM reportes GROUP BY id_area_reporte"));
+        Map<String, Long> cantidades = new TreeMap<>();
+        for (List<Map<String, Object>> filas : porShard) {
+            for (Map<String, Object> fila : filas) {
+                cantidades.merge((String) fila.get("area"), ((Number) fila.get("cantidad")).longValue(), Long::sum);
+            }
+        }
+        return cantidades;
+    }
+
+    public int getShards() {
+        return shards.size();
+    }
+
+    /*Datasources de los shards, en el orden del router. Para procesos largos que recorren los shards uno a uno
+     (purga, reconstruccion de estadisticas) y no deben quedar sujetos al timeout del reparto en paralelo. */
+    public List<DataSource> getFuentes() {
+        return fuentes;
+    }
+
+    /*Lanza la consulta en todos los shards a la vez y espera como mucho timeoutMs por el conjunto.
+     Si algun shard falla o no contesta, la operacion falla entera: un resultado parcial no se distingue de uno completo. */
+    private <T> List<T> enTodos(String operacion, Function<JdbcTemplate, T> consulta) {
+        List<CompletableFuture<T>> futuros = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(SqlRequestStats.enPeticionActual(() -> consulta.apply(shard)), ejecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(futuros.toArray(new CompletableFuture[0])).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            long pendientes = futuros.stream().filter(futuro -> !futuro.isDone()).count();
+            futuros.forEach(futuro -> futuro.cancel(true));
+            log.warn("{}: {} de {} shards sin respuesta tras {} ms", operacion, pendientes, shards.size(), timeoutMs);
+            throw new ShardNoDisponibleException(operacion, retryAfterSegundos);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShardNoDisponibleException(operacion, retryAfterSegundos);
+        }
+        return futuros.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Override
+    public void close() {
+        ejecutor.shutdownNow();
+        for (DataSource fuente : fuentes) {
+            if (fuente instanceof Closeable cerrable) {
+                try {
+                    cerrable.close();
+                } catch (IOException e) {
+                    log.warn("No se pudo cerrar un datasource de shard", e);
+                }
+            }
+        }
+    }
+
+    private record PaginaShard(List<Reportes> filas, long total) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import com.perfulandia.mic_reportes_fase2.concurrency.AdmissionRejectedException;
+
+/*Se lanza cuando algun shard no responde a tiempo en una consulta repartida. Una respuesta
+ con los shards que si contestaron seria incompleta sin avisar, asi que se responde 503 con Retry-After. */
+
+public class ShardNoDisponibleException extends AdmissionRejectedException {
+
+    public ShardNoDisponibleException(String operacion, long retryAfterSegundos) {
+        super("Shards sin respuesta en " + operacion, retryAfterSegundos);
+    }
+}
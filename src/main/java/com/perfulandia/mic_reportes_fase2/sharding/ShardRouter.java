@@ -0,0 +1,41 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+
+/*Decide en que shard vive cada reporte. Un reporte nuevo va al shard de su clave (`id_areaReporte`
+ o `id_usuario`, segun `reportes.sharding.clave`); desde ese momento su id lleva el shard
+ (ver GeneradorIds) y las lecturas, actualizaciones y borrados por id van directos a el.
+ Por eso agregar shards solo cambia donde caen los reportes nuevos: los existentes se siguen encontrando.
+ Se usa String.hashCode porque su valor esta fijado por la especificacion y es igual en todas las instancias. */
+
+public class ShardRouter {
+
+    private final int shards;
+    private final ShardingProperties.ClaveShard clave;
+
+    public ShardRouter(int shards, ShardingProperties.ClaveShard clave) {
+        if (shards < 1 || shards > GeneradorIds.MAXIMO_SHARDS) {
+            throw new IllegalArgumentException("Se necesitan entre 1 y " + GeneradorIds.MAXIMO_SHARDS + " shards: " + shards);
+        }
+        this.shards = shards;
+        this.clave = clave;
+    }
+
+    public int shardPara(Reportes reporte) {
+        String valor = clave == ShardingProperties.ClaveShard.AREA ? reporte.getId_areaReporte() : reporte.getId_usuario();
+        if (valor == null) {
+            throw new IllegalArgumentException("El reporte no tiene " + (clave == ShardingProperties.ClaveShard.AREA ? "id_areaReporte" : "id_usuario"));
+        }
+        return Math.floorMod(valor.hashCode(), shards);
+    }
+
+    // -1 si el id no puede pertenecer a ningun shard configurado
+    public int shardDeId(long id) {
+        int shard = GeneradorIds.shardDe(id);
+        return id > 0 && shard < shards ? shard : -1;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+}
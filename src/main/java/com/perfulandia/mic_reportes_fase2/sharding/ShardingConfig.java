@@ -0,0 +1,79 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.perfulandia.mic_reportes_fase2.concurrency.AdmissionControlProperties;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.sql.SqlInstrumentationConfig;
+import com.perfulandia.mic_reportes_fase2.sql.SqlStatementListener;
+import com.zaxxer.hikari.HikariDataSource;
+
+/*Crea los datasources de los shards (`reportes.sharding.shards[n].*`) cuando `reportes.sharding.habilitado=true`.
+ Cada shard recibe las mismas migraciones de Flyway que la base principal y se instrumenta como ella
+ (cabeceras X-Sql-*). No se registran como beans DataSource para no competir con el datasource principal.
+ Las purgas y la reconstruccion de estadisticas recorren los shards. El registro de cambios
+ (GET /api/v1/reportes/changes) no esta soportado con sharding: no se anotan cambios y el endpoint responde 501.
+ Los ids de los reportes se escriben en JSON como texto (ver ReportesIdComoTexto). */
+
+@Configuration
+@ConditionalOnProperty(prefix = "reportes.sharding", name = "habilitado", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public ReportesShardedRepository reportesShardedRepository(ShardingProperties properties, AdmissionControlProperties admision,
+            Environment environment) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("reportes.sharding.habilitado=true sin ningun reportes.sharding.shards[n].url");
+        }
+        SqlStatementListener listener = SqlInstrumentationConfig.listener(environment);
+        List<DataSource> fuentes = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource fuente = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsuario())
+                    .password(shard.getPassword())
+                    .build();
+            fuente.setPoolName("shard-" + i);
+            fuente.setMaximumPoolSize(shard.getMaxConexiones());
+            migrar(fuente);
+            fuentes.add(SqlInstrumentationConfig.proxy(fuente, "shard-" + i, listener));
+        }
+        log.info("Reportes repartidos en {} shards por {}", fuentes.size(), properties.getClave());
+        return new ReportesShardedRepository(fuentes,
+                new ShardRouter(fuentes.size(), properties.getClave()),
+                new GeneradorIds(properties.getNodo()),
+                properties.getTimeoutMs(), properties.getHilosPorShard(), admision.getRetryAfterSegundos());
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer reportesIdComoTexto() {
+        return builder -> builder.mixIn(Reportes.class, ReportesIdComoTexto.class);
+    }
+
+    private static void migrar(DataSource fuente) {
+        Flyway.configure()
+                .dataSource(fuente)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,46 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/*Configuracion del reparto de reportes entre varias bases de datos (prefijo `reportes.sharding`).
+ Desactivado por defecto: con `habilitado=false` todo sigue en el datasource principal. */
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "reportes.sharding")
+public class ShardingProperties {
+
+    private boolean habilitado = false;
+
+    /*Campo que decide el shard de un reporte nuevo */
+    private ClaveShard clave = ClaveShard.AREA;
+
+    /*Identificador de esta instancia (0-63) para los ids; cada instancia que escribe necesita uno distinto */
+    private int nodo = 0;
+
+    /*Tiempo maximo de una consulta repartida entre todos los shards */
+    private long timeoutMs = 5000;
+
+    /*Consultas simultaneas por shard durante el reparto */
+    private int hilosPorShard = 4;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public enum ClaveShard {
+        AREA, USUARIO
+    }
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String usuario;
+        private String password;
+        private int maxConexiones = 10;
+    }
+}
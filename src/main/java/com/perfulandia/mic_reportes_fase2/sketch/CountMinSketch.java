@@ -0,0 +1,91 @@
+package com.perfulandia.mic_reportes_fase2.sketch;
+
+import java.io.Serializable;
+
+/*Sketch Count-Min para estimar la frecuencia de cualquier clave en memoria fija.
+ La estimacion nunca es menor que la real y, con probabilidad 1 - delta,
+ la supera como mucho en epsilon * total. Dos sketches con las mismas dimensiones
+ se combinan sumando sus contadores. */
+
+public class CountMinSketch implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double epsilon;
+    private final double delta;
+    private final int ancho;
+    private final long[][] contadores;
+    private long total;
+
+    public CountMinSketch(double epsilon, double delta) {
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.ancho = (int) Math.ceil(Math.E / epsilon);
+        this.contadores = new long[(int) Math.ceil(Math.log(1 / delta))][ancho];
+    }
+
+    public synchronized void add(String clave, long cantidad) {
+        long hash = Hashing.hash64(clave);
+        for (int fila = 0; fila < contadores.length; fila++) {
+            contadores[fila][columna(hash, fila)] += cantidad;
+        }
+        total += cantidad;
+    }
+
+    public synchronized long estimate(String clave) {
+        long hash = Hashing.hash64(clave);
+        long minimo = Long.MAX_VALUE;
+        for (int fila = 0; fila < contadores.length; fila++) {
+            minimo = Math.min(minimo, contadores[fila][columna(hash, fila)]);
+        }
+        return minimo;
+    }
+
+    public void merge(CountMinSketch otro) {
+        if (otro.ancho != ancho || otro.contadores.length != contadores.length) {
+            throw new IllegalArgumentException("No se pueden combinar Count-Min de distintas dimensiones");
+        }
+        CountMinSketch ajeno = otro.copia();
+        synchronized (this) {
+            for (int fila = 0; fila < contadores.length; fila++) {
+                for (int columna = 0; columna < ancho; columna++) {
+                    contadores[fila][columna] += ajeno.contadores[fila][columna];
+                }
+            }
+            total += ajeno.total;
+        }
+    }
+
+    public synchronized CountMinSketch copia() {
+        CountMinSketch copia = new CountMinSketch(epsilon, delta);
+        for (int fila = 0; fila < contadores.length; fila++) {
+            System.arraycopy(contadores[fila], 0, copia.contadores[fila], 0, ancho);
+        }
+        copia.total = total;
+        return copia;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /*Sobreestimacion maxima (con probabilidad 1 - delta) de cualquier frecuencia */
+    public synchronized long errorMaximo() {
+        return (long) Math.ceil(epsilon * total);
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    // Doble hashing (Kirsch-Mitzenmacher): las filas se derivan de las dos mitades del hash de 64 bits
+    private int columna(long hash, int fila) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + fila * h2, ancho);
+    }
+}
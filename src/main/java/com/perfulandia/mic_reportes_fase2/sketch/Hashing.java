@@ -0,0 +1,27 @@
+package com.perfulandia.mic_reportes_fase2.sketch;
+
+import java.nio.charset.StandardCharsets;
+
+/*Hash de 64 bits para los sketches: FNV-1a sobre los bytes UTF-8 seguido del
+ finalizador de MurmurHash3, que reparte bien los bits aunque las claves se parezcan
+ mucho entre si (user1, user2, ...). */
+
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    static long hash64(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,91 @@
+package com.perfulandia.mic_reportes_fase2.sketch;
+
+import java.io.Serializable;
+
+/*Estimador de cardinalidad HyperLogLog con 2^precision registros de un byte.
+ Usa memoria fija (16 KB con precision 14) sin importar cuantos valores distintos vea,
+ y dos sketches con la misma precision se combinan tomando el maximo de cada registro,
+ lo que permite sumar dias o areas sin volver a leer los datos. */
+
+public class HyperLogLog implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int precision;
+    private final byte[] registros;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("La precision debe estar entre 4 y 18");
+        }
+        this.precision = precision;
+        this.registros = new byte[1 << precision];
+    }
+
+    public synchronized void add(String valor) {
+        long hash = Hashing.hash64(valor);
+        int indice = (int) (hash >>> (64 - precision));
+        // El bit centinela acota el rango aunque el resto del hash sean ceros
+        long resto = (hash << precision) | (1L << (precision - 1));
+        byte rango = (byte) (Long.numberOfLeadingZeros(resto) + 1);
+        if (rango > registros[indice]) {
+            registros[indice] = rango;
+        }
+    }
+
+    public synchronized long estimate() {
+        int m = registros.length;
+        double suma = 0;
+        int ceros = 0;
+        for (byte registro : registros) {
+            suma += 1.0 / (1L << registro);
+            if (registro == 0) {
+                ceros++;
+            }
+        }
+        double estimacion = alfa(m) * m * m / suma;
+        // Correccion para cardinalidades pequeñas (linear counting)
+        if (estimacion <= 2.5 * m && ceros > 0) {
+            estimacion = m * Math.log((double) m / ceros);
+        }
+        return Math.round(estimacion);
+    }
+
+    public void merge(HyperLogLog otro) {
+        if (otro.precision != precision) {
+            throw new IllegalArgumentException("No se pueden combinar HyperLogLog de distinta precision");
+        }
+        byte[] ajenos = otro.copia().registros;
+        synchronized (this) {
+            for (int i = 0; i < registros.length; i++) {
+                if (ajenos[i] > registros[i]) {
+                    registros[i] = ajenos[i];
+                }
+            }
+        }
+    }
+
+    public synchronized HyperLogLog copia() {
+        HyperLogLog copia = new HyperLogLog(precision);
+        System.arraycopy(registros, 0, copia.registros, 0, registros.length);
+        return copia;
+    }
+
+    /*Error estandar relativo de la estimacion: 1.04 / sqrt(m) */
+    public double errorEstandar() {
+        return 1.04 / Math.sqrt(registros.length);
+    }
+
+    private static double alfa(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
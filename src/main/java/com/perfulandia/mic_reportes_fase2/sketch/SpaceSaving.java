@@ -0,0 +1,183 @@
+package com.perfulandia.mic_reportes_fase2.sketch;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*Algoritmo Space-Saving para las claves mas frecuentes (heavy hitters) con a lo sumo
+ `capacidad` contadores. Cuando llega una clave nueva y no hay hueco, reemplaza a la de menor
+ cuenta y hereda esa cuenta como error. Cada contador sobreestima la frecuencia real
+ como mucho en su `error`, y cualquier clave con frecuencia mayor que total / capacidad
+ esta garantizada en el resumen.
+ Los contadores forman un monticulo de minimos indexado por clave: la de menor cuenta esta siempre
+ en la raiz y cada `add` cuesta O(log capacidad), sin recorrer el resumen mientras se tiene el cerrojo. */
+
+public class SpaceSaving implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    /*Entrada del resumen: cuenta estimada y su sobreestimacion maxima */
+    public record Contador(String clave, long cuenta, long error) implements Serializable {
+    }
+
+    private final int capacidad;
+    private final String[] claves;
+    private final long[] cuentas;
+    private final long[] errores;
+    private final Map<String, Integer> posiciones;
+    private int tamano;
+    private long total;
+
+    public SpaceSaving(int capacidad) {
+        this.capacidad = capacidad;
+        this.claves = new String[capacidad];
+        this.cuentas = new long[capacidad];
+        this.errores = new long[capacidad];
+        this.posiciones = new HashMap<>(capacidad * 2);
+    }
+
+    public synchronized void add(String clave, long cantidad) {
+        total += cantidad;
+        Integer posicion = posiciones.get(clave);
+        if (posicion != null) {
+            cuentas[posicion] += cantidad;
+            bajar(posicion);
+            return;
+        }
+        if (tamano < capacidad) {
+            colocar(tamano, clave, cantidad, 0);
+            tamano++;
+            subir(tamano - 1);
+            return;
+        }
+        // Sustituye a la clave de menor cuenta (la raiz), que pasa a ser el error de la nueva
+        long minimo = cuentas[0];
+        posiciones.remove(claves[0]);
+        colocar(0, clave, minimo + cantidad, minimo);
+        bajar(0);
+    }
+
+    /*Las `n` claves con mayor cuenta, de mayor a menor */
+    public synchronized List<Contador> top(int n) {
+        List<Contador> resultado = contadores();
+        resultado.sort(Comparator.comparingLong(Contador::cuenta).reversed());
+        return resultado.subList(0, Math.min(n, resultado.size()));
+    }
+
+    /*Combina otro resumen (p. ej. de otro dia). A las claves que faltan en uno de los dos se les suma
+     la cuenta minima de ese resumen, que es lo maximo que podrian haber tenido en el, y se conservan
+     las `capacidad` mayores. */
+    public void merge(SpaceSaving otro) {
+        SpaceSaving ajeno = otro.copia();
+        synchronized (this) {
+            long minimoPropio = minimo();
+            long minimoAjeno = ajeno.minimo();
+
+            Map<String, long[]> combinados = new HashMap<>(capacidad * 4);
+            for (int i = 0; i < tamano; i++) {
+                Integer delOtro = ajeno.posiciones.get(claves[i]);
+                combinados.put(claves[i], delOtro != null
+                        ? new long[]{cuentas[i] + ajeno.cuentas[delOtro], errores[i] + ajeno.errores[delOtro]}
+                        : new long[]{cuentas[i] + minimoAjeno, errores[i] + minimoAjeno});
+            }
+            for (int i = 0; i < ajeno.tamano; i++) {
+                if (!posiciones.containsKey(ajeno.claves[i])) {
+                    combinados.put(ajeno.claves[i], new long[]{ajeno.cuentas[i] + minimoPropio, ajeno.errores[i] + minimoPropio});
+                }
+            }
+
+            posiciones.clear();
+            Arrays.fill(claves, null);
+            tamano = 0;
+            combinados.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                    .limit(capacidad)
+                    .forEach(e -> colocar(tamano++, e.getKey(), e.getValue()[0], e.getValue()[1]));
+            for (int i = tamano / 2 - 1; i >= 0; i--) {
+                bajar(i);
+            }
+            total += ajeno.total;
+        }
+    }
+
+    public synchronized SpaceSaving copia() {
+        SpaceSaving copia = new SpaceSaving(capacidad);
+        System.arraycopy(claves, 0, copia.claves, 0, tamano);
+        System.arraycopy(cuentas, 0, copia.cuentas, 0, tamano);
+        System.arraycopy(errores, 0, copia.errores, 0, tamano);
+        copia.posiciones.putAll(posiciones);
+        copia.tamano = tamano;
+        copia.total = total;
+        return copia;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    // Cuenta que podria haber tenido una clave ausente: la menor del resumen si esta lleno, 0 si hay hueco
+    private long minimo() {
+        return tamano < capacidad ? 0 : cuentas[0];
+    }
+
+    private List<Contador> contadores() {
+        List<Contador> resultado = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            resultado.add(new Contador(claves[i], cuentas[i], errores[i]));
+        }
+        return resultado;
+    }
+
+    private void colocar(int posicion, String clave, long cuenta, long error) {
+        claves[posicion] = clave;
+        cuentas[posicion] = cuenta;
+        errores[posicion] = error;
+        posiciones.put(clave, posicion);
+    }
+
+    private void subir(int posicion) {
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            if (cuentas[padre] <= cuentas[posicion]) {
+                return;
+            }
+            intercambiar(posicion, padre);
+            posicion = padre;
+        }
+    }
+
+    private void bajar(int posicion) {
+        while (true) {
+            int menor = posicion;
+            int izquierdo = 2 * posicion + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamano && cuentas[izquierdo] < cuentas[menor]) {
+                menor = izquierdo;
+            }
+            if (derecho < tamano && cuentas[derecho] < cuentas[menor]) {
+                menor = derecho;
+            }
+            if (menor == posicion) {
+                return;
+            }
+            intercambiar(posicion, menor);
+            posicion = menor;
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        String clave = claves[a];
+        long cuenta = cuentas[a];
+        long error = errores[a];
+        colocar(a, claves[b], cuentas[b], errores[b]);
+        colocar(b, clave, cuenta, error);
+    }
+}
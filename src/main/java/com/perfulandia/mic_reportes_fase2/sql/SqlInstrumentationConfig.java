@@ -0,0 +1,47 @@
+package com.perfulandia.mic_reportes_fase2.sql;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/*Envuelve los DataSource de la aplicacion con datasource-proxy para contar las sentencias
+ y el tiempo JDBC de cada peticion (ver SqlStatementListener). Sustituye a spring.jpa.show-sql,
+ que imprimia cada sentencia sin decir que endpoint la lanzo. */
+
+@Configuration
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlDataSourceProxyPostProcessor(Environment environment) {
+        SqlStatementListener listener = listener(environment);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return proxy((DataSource) bean, beanName, listener);
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static SqlStatementListener listener(Environment environment) {
+        return new SqlStatementListener(
+                environment.getProperty("reportes.sql.umbral-lenta-ms", Long.class, 200L),
+                environment.getProperty("reportes.sql.muestreo-lentas", Double.class, 0.1));
+    }
+
+    public static DataSource proxy(DataSource dataSource, String nombre, SqlStatementListener listener) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(nombre)
+                .listener(listener)
+                .build();
+    }
+}
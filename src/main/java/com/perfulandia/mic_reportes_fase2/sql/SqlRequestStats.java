@@ -0,0 +1,74 @@
+package com.perfulandia.mic_reportes_fase2.sql;
+
+import java.util.function.Supplier;
+
+/*Contadores de SQL de la peticion HTTP en curso: sentencias ejecutadas y tiempo total en JDBC.
+ Los abre y cierra SqlRequestStatsFilter y los alimenta SqlStatementListener desde el mismo hilo.
+ Fuera de una peticion (tareas programadas, purgas) no hay contadores y `actual()` devuelve null.
+ Las consultas que la peticion reparte en otros hilos (shards) se suman con `enPeticionActual`;
+ en ese caso el tiempo es la suma del tiempo JDBC de todos los hilos, no el tiempo de pared. */
+
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> ACTUAL = new ThreadLocal<>();
+
+    private final String endpoint;
+    private int sentencias;
+    private long nanos;
+
+    private SqlRequestStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    static SqlRequestStats iniciar(String endpoint) {
+        SqlRequestStats stats = new SqlRequestStats(endpoint);
+        ACTUAL.set(stats);
+        return stats;
+    }
+
+    static void terminar() {
+        ACTUAL.remove();
+    }
+
+    public static SqlRequestStats actual() {
+        return ACTUAL.get();
+    }
+
+    // Envuelve una tarea que correra en otro hilo para que sus sentencias cuenten en la peticion actual
+    public static <T> Supplier<T> enPeticionActual(Supplier<T> tarea) {
+        SqlRequestStats stats = actual();
+        if (stats == null) {
+            return tarea;
+        }
+        return () -> {
+            SqlRequestStats anterior = ACTUAL.get();
+            ACTUAL.set(stats);
+            try {
+                return tarea.get();
+            } finally {
+                ACTUAL.set(anterior);
+            }
+        };
+    }
+
+    synchronized void registrar(long nanosSentencia) {
+        sentencias++;
+        nanos += nanosSentencia;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized int getSentencias() {
+        return sentencias;
+    }
+
+    public synchronized long getNanos() {
+        return nanos;
+    }
+
+    public synchronized double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+}
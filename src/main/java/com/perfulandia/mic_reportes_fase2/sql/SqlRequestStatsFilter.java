@@ -0,0 +1,141 @@
+package com.perfulandia.mic_reportes_fase2.sql;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/*Abre los contadores de SQL de cada peticion y, al terminar, los publica:
+ en las cabeceras X-Sql-Sentencias y X-Sql-Tiempo-Ms de la respuesta, como metricas por endpoint
+ y, si se supera el presupuesto de sentencias, con un aviso de posible N+1 en el log.
+ Las cabeceras se escriben justo antes de que se envie la respuesta, que es cuando el controlador
+ ya termino de consultar la base de datos. */
+
+@Component
+public class SqlRequestStatsFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_SENTENCIAS = "X-Sql-Sentencias";
+    public static final String CABECERA_TIEMPO = "X-Sql-Tiempo-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlRequestStatsFilter.class);
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final boolean cabeceras;
+    private final int presupuestoSentencias;
+
+    public SqlRequestStatsFilter(ObjectProvider<MeterRegistry> registry,
+            @Value("${reportes.sql.cabeceras:true}") boolean cabeceras,
+            @Value("${reportes.sql.presupuesto-sentencias:20}") int presupuestoSentencias) {
+        this.registry = registry;
+        this.cabeceras = cabeceras;
+        this.presupuestoSentencias = presupuestoSentencias;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.iniciar(request.getMethod() + " " + request.getRequestURI());
+        HttpServletResponse respuesta = cabeceras ? new RespuestaConCabecerasSql(response, stats) : response;
+        try {
+            filterChain.doFilter(request, respuesta);
+        } finally {
+            SqlRequestStats.terminar();
+            if (respuesta instanceof RespuestaConCabecerasSql conCabeceras) {
+                conCabeceras.escribirCabeceras();
+            }
+            publicar(request, stats);
+        }
+    }
+
+    private void publicar(HttpServletRequest request, SqlRequestStats stats) {
+        // El patron del endpoint (/api/v1/reportes/{id}) evita una serie de metricas por cada id
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (patron != null ? patron : "sin-handler");
+
+        MeterRegistry metricas = registry.getIfAvailable();
+        if (metricas != null) {
+            metricas.summary("reportes.sql.sentencias", "endpoint", endpoint).record(stats.getSentencias());
+            metricas.timer("reportes.sql.tiempo", "endpoint", endpoint).record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        if (stats.getSentencias() > presupuestoSentencias) {
+            log.warn("Posible N+1: {} ejecuto {} sentencias SQL ({} ms), el presupuesto es {}",
+                    stats.getEndpoint(), stats.getSentencias(), Math.round(stats.getMillis()), presupuestoSentencias);
+            if (metricas != null) {
+                metricas.counter("reportes.sql.presupuesto.excedido", "endpoint", endpoint).increment();
+            }
+        }
+    }
+
+    /*Agrega las cabeceras de SQL en el primer punto en que la respuesta podria enviarse al cliente. */
+    private static class RespuestaConCabecerasSql extends HttpServletResponseWrapper {
+
+        private final SqlRequestStats stats;
+        private boolean escritas;
+
+        RespuestaConCabecerasSql(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void escribirCabeceras() {
+            if (escritas || isCommitted()) {
+                return;
+            }
+            escritas = true;
+            setHeader(CABECERA_SENTENCIAS, String.valueOf(stats.getSentencias()));
+            setHeader(CABECERA_TIEMPO, String.valueOf(Math.round(stats.getMillis())));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escribirCabeceras();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escribirCabeceras();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escribirCabeceras();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escribirCabeceras();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escribirCabeceras();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            escribirCabeceras();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.perfulandia.mic_reportes_fase2.sql;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/*Listener de datasource-proxy que suma cada sentencia a los contadores de la peticion actual
+ y registra en el log una muestra de las sentencias lentas. De los parametros solo se registra
+ su tipo (la "forma" de la consulta), nunca su valor, para no volcar datos de usuarios al log. */
+
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    private static final ThreadLocal<Long> INICIO = new ThreadLocal<>();
+
+    private final long umbralLentaMs;
+    private final double muestreoLentas;
+
+    public SqlStatementListener(long umbralLentaMs, double muestreoLentas) {
+        this.umbralLentaMs = umbralLentaMs;
+        this.muestreoLentas = muestreoLentas;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        INICIO.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long inicio = INICIO.get();
+        INICIO.remove();
+        long nanos = inicio == null ? 0 : System.nanoTime() - inicio;
+
+        SqlRequestStats stats = SqlRequestStats.actual();
+        if (stats != null) {
+            stats.registrar(nanos);
+        }
+
+        long millis = nanos / 1_000_000;
+        if (millis >= umbralLentaMs && ThreadLocalRandom.current().nextDouble() < muestreoLentas) {
+            log.warn("Sentencia lenta ({} ms) en {}: {}", millis, stats == null ? "(fuera de una peticion)" : stats.getEndpoint(),
+                    queryInfoList.stream().map(SqlStatementListener::forma).collect(Collectors.joining(" ; ")));
+        }
+    }
+
+    // "select ... where id=? [Long]": la sentencia con el tipo de cada parametro del primer juego de valores
+    private static String forma(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parametros = queryInfo.getParametersList();
+        if (parametros.isEmpty()) {
+            return queryInfo.getQuery();
+        }
+        String tipos = parametros.get(0).stream()
+                .map(operacion -> {
+                    Object[] args = operacion.getArgs();
+                    Object valor = args.length > 1 ? args[1] : null;
+                    return valor == null ? "null" : valor.getClass().getSimpleName();
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+        String lotes = parametros.size() > 1 ? " x" + parametros.size() : "";
+        return queryInfo.getQuery() + " " + tipos + lotes;
+    }
+}
@@ -0,0 +1,56 @@
+package com.perfulandia.mic_reportes_fase2.startup;
+
+import java.util.List;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/*Marca como lazy los beans no criticos para el arranque (por defecto los de springdoc),
+ de forma que se crean en la primera peticion que los necesita y no durante el inicio.
+ Se controla con `reportes.arranque.diferir-no-criticos` y `reportes.arranque.paquetes-diferidos`. */
+
+@Component
+public class LazyNonCriticalBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private boolean habilitado;
+    private List<String> paquetes;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.habilitado = environment.getProperty("reportes.arranque.diferir-no-criticos", Boolean.class, false);
+        this.paquetes = List.of(environment.getProperty("reportes.arranque.paquetes-diferidos", String[].class,
+                new String[]{"org.springdoc."}));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (!habilitado) {
+            return;
+        }
+        for (String nombre : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definicion = beanFactory.getBeanDefinition(nombre);
+            if (definicion.isSingleton() && !definicion.isAbstract() && esNoCritico(nombre, definicion, beanFactory)) {
+                definicion.setLazyInit(true);
+            }
+        }
+    }
+
+    // Los beans declarados con @Bean no tienen clase propia: se mira la clase de configuracion que los define
+    private boolean esNoCritico(String nombre, BeanDefinition definicion, ConfigurableListableBeanFactory beanFactory) {
+        String clase = definicion.getBeanClassName();
+        String fabrica = definicion.getFactoryBeanName();
+        if (clase == null && fabrica != null && beanFactory.containsBeanDefinition(fabrica)) {
+            clase = beanFactory.getBeanDefinition(fabrica).getBeanClassName();
+        }
+        return perteneceAPaqueteDiferido(nombre) || perteneceAPaqueteDiferido(clase);
+    }
+
+    private boolean perteneceAPaqueteDiferido(String nombre) {
+        return nombre != null && paquetes.stream().anyMatch(nombre::startsWith);
+    }
+}
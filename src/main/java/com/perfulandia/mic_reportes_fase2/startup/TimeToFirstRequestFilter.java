@@ -0,0 +1,41 @@
+package com.perfulandia.mic_reportes_fase2.startup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*Registra en el log cuanto tarda la instancia, desde que arranca la JVM, en responder su primera peticion.
+ Es la medida que importa al escalar horizontalmente y sirve para comparar el arranque
+ normal con el perfil `arranque-rapido` (AOT + CDS). Tras la primera peticion el filtro no hace nada. */
+
+@Component
+public class TimeToFirstRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeToFirstRequestFilter.class);
+
+    private final AtomicBoolean medido = new AtomicBoolean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!medido.get() && medido.compareAndSet(false, true)) {
+                long inicioJvm = ManagementFactory.getRuntimeMXBean().getStartTime();
+                log.info("Primera peticion ({} {}) atendida {} ms despues del arranque de la JVM",
+                        request.getMethod(), request.getRequestURI(), System.currentTimeMillis() - inicioJvm);
+            }
+        }
+    }
+}
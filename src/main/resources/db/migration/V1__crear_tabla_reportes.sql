@@ -0,0 +1,10 @@
+-- Esquema inicial de la tabla reportes (equivalente al que generaba ddl-auto=update).
+-- En bases existentes esta version se marca como baseline y no se vuelve a ejecutar.
+CREATE TABLE IF NOT EXISTS reportes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    id_area_reporte VARCHAR(255) NOT NULL,
+    id_usuario VARCHAR(255) NOT NULL,
+    mensaje_reporte VARCHAR(1000) NOT NULL,
+    fecha_reporte DATE NOT NULL,
+    PRIMARY KEY (id)
+);
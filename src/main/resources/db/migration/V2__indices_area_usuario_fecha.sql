@@ -0,0 +1,4 @@
+-- Indices para los filtros por area, usuario y rango de fechas (purgas por lotes y consultas filtradas).
+-- Sin ellos cada DELETE ... LIMIT recorreria la tabla completa y bloquearia filas que no borra.
+CREATE INDEX idx_reportes_area_fecha ON reportes (id_area_reporte, fecha_reporte);
+CREATE INDEX idx_reportes_usuario_fecha ON reportes (id_usuario, fecha_reporte);
@@ -0,0 +1,15 @@
+-- Registro de cambios de reportes para la sincronizacion incremental (GET /api/v1/reportes/changes).
+-- Cada insercion, actualizacion o borrado agrega una fila en la misma transaccion que el cambio.
+CREATE TABLE IF NOT EXISTS reportes_cambios (
+    secuencia BIGINT NOT NULL AUTO_INCREMENT,
+    reporte_id BIGINT NOT NULL,
+    operacion VARCHAR(10) NOT NULL,
+    id_area_reporte VARCHAR(255),
+    id_usuario VARCHAR(255),
+    mensaje_reporte VARCHAR(1000),
+    fecha_reporte DATE,
+    registrado_en DATETIME(6) NOT NULL,
+    PRIMARY KEY (secuencia)
+);
+
+CREATE INDEX idx_reportes_cambios_registrado ON reportes_cambios (registrado_en);
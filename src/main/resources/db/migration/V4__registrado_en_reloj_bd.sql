@@ -0,0 +1,4 @@
+-- El instante de cada cambio lo pone la base de datos al insertar la fila, no el reloj de la instancia
+-- que lo escribe: asi el retraso de visibilidad de GET /api/v1/reportes/changes no depende del desfase
+-- entre instancias de la aplicacion.
+ALTER TABLE reportes_cambios MODIFY registrado_en DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
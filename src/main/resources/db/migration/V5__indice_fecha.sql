@@ -0,0 +1,3 @@
+-- Indice para las purgas y consultas filtradas solo por rango de fechas. Los de V2 empiezan por area o usuario
+-- y no sirven sin ellos: cada lote SELECT ... LIMIT ... FOR UPDATE recorreria la tabla bloqueando todo lo leido.
+CREATE INDEX idx_reportes_fecha ON reportes (fecha_reporte);
@@ -0,0 +1,58 @@
+package com.perfulandia.mic_reportes_fase2;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Utilidad de pruebas que crea bases H2 en memoria en modo MySQL con las migraciones de Flyway aplicadas,
+ * para probar contra el mismo esquema que produccion sin levantar un contexto de Spring.
+ * Cada base tiene un nombre unico y sobrevive hasta {@link #cerrar}, asi que las pruebas no comparten datos.
+ * <pre>
+ * DataSource fuente = BasesH2.migrada("purga");
+ * ...
+ * BasesH2.cerrar(fuente);
+ * </pre>
+ */
+public final class BasesH2 {
+
+    private BasesH2() {
+    }
+
+    /**
+     * Crea una base migrada cuyo nombre empieza por {@code nombre}.
+     */
+    public static DataSource migrada(String nombre) {
+        DataSource fuente = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + nombre + "_" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(fuente).locations("classpath:db/migration").load().migrate();
+        return fuente;
+    }
+
+    /**
+     * Crea {@code cantidad} bases migradas, por ejemplo una por shard.
+     */
+    public static List<DataSource> migradas(String nombre, int cantidad) {
+        List<DataSource> fuentes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            fuentes.add(migrada(nombre + i));
+        }
+        return fuentes;
+    }
+
+    /**
+     * Borra las bases: con DB_CLOSE_DELAY=-1 solo desaparecen con un SHUTDOWN explicito.
+     */
+    public static void cerrar(DataSource... fuentes) {
+        cerrar(List.of(fuentes));
+    }
+
+    public static void cerrar(List<DataSource> fuentes) {
+        fuentes.forEach(fuente -> new JdbcTemplate(fuente).execute("SHUTDOWN"));
+    }
+}
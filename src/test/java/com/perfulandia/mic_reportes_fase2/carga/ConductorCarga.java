@@ -0,0 +1,170 @@
+package com.perfulandia.mic_reportes_fase2.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Conductor de carga de lazo abierto (open loop): lanza peticiones a una tasa fija
+ * sin esperar a que terminen las anteriores, como hacen los clientes reales.
+ * La latencia se mide desde el instante en que la peticion <em>debia</em> salir, de modo que
+ * si el servidor se atasca las esperas quedan reflejadas (sin omision coordinada).
+ * Cada operacion acumula su propia distribucion de latencias en un histograma HdrHistogram.
+ */
+public class ConductorCarga {
+
+    /**
+     * Operacion de la mezcla de carga: nombre del endpoint, peso relativo y fabrica de peticiones.
+     * La fabrica se invoca siempre desde el hilo que despacha, por lo que no necesita ser thread-safe.
+     */
+    public record Operacion(String nombre, int peso, Supplier<HttpRequest> peticion) {
+    }
+
+    private final HttpClient cliente;
+    private final List<Operacion> operaciones;
+    private final int pesoTotal;
+    private final SplittableRandom random;
+    private final Map<String, Histogram> latencias = new LinkedHashMap<>();
+    private final Map<String, LongAdder> rechazadas = new LinkedHashMap<>();
+    private final Map<String, LongAdder> fallidas = new LinkedHashMap<>();
+
+    public ConductorCarga(HttpClient cliente, List<Operacion> operaciones, long semilla) {
+        this.cliente = cliente;
+        this.operaciones = operaciones;
+        this.pesoTotal = operaciones.stream().mapToInt(Operacion::peso).sum();
+        this.random = new SplittableRandom(semilla);
+        for (Operacion operacion : operaciones) {
+            latencias.put(operacion.nombre(), new ConcurrentHistogram(3));
+            rechazadas.put(operacion.nombre(), new LongAdder());
+            fallidas.put(operacion.nombre(), new LongAdder());
+        }
+    }
+
+    /**
+     * Envia {@code peticionesPorSegundo} durante {@code duracion} y espera a que terminen todas
+     * las respuestas (como maximo {@code esperaFinal} extra).
+     */
+    public void ejecutar(int peticionesPorSegundo, Duration duracion, Duration esperaFinal) {
+        long intervaloNanos = TimeUnit.SECONDS.toNanos(1) / peticionesPorSegundo;
+        long total = duracion.toSeconds() * peticionesPorSegundo;
+        List<CompletableFuture<?>> pendientes = new ArrayList<>();
+
+        long inicio = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long previsto = inicio + i * intervaloNanos;
+            esperarHasta(previsto);
+            Operacion operacion = elegir();
+            pendientes.add(cliente.sendAsync(operacion.peticion().get(), HttpResponse.BodyHandlers.discarding())
+                    .handle((respuesta, error) -> {
+                        registrar(operacion, previsto, respuesta, error);
+                        return null;
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(pendientes.toArray(new CompletableFuture[0]))
+                    .get(esperaFinal.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("La carga no termino dentro de la espera final", e);
+        }
+    }
+
+    public Map<String, Histogram> getLatencias() {
+        return latencias;
+    }
+
+    public long getRechazadas(String operacion) {
+        return rechazadas.get(operacion).sum();
+    }
+
+    public long getFallidas(String operacion) {
+        return fallidas.get(operacion).sum();
+    }
+
+    /**
+     * Fraccion de las peticiones de {@code operacion} rechazadas con 503 por el control de admision.
+     * Las rechazadas no entran en el histograma, asi que un p99 bajo solo vale si esta fraccion tambien lo es.
+     */
+    public double getFraccionRechazada(String operacion) {
+        long rechazadasOperacion = getRechazadas(operacion);
+        long total = latencias.get(operacion).getTotalCount() + rechazadasOperacion + getFallidas(operacion);
+        return total == 0 ? 0 : (double) rechazadasOperacion / total;
+    }
+
+    /**
+     * Imprime el resumen por endpoint y la distribucion completa de percentiles (en milisegundos).
+     */
+    public void imprimirInforme(PrintStream salida) {
+        for (Map.Entry<String, Histogram> entrada : latencias.entrySet()) {
+            Histogram histograma = entrada.getValue();
+            salida.printf("%n== %s: %d ok, %d rechazadas (503), %d fallidas | p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    entrada.getKey(), histograma.getTotalCount(), getRechazadas(entrada.getKey()), getFallidas(entrada.getKey()),
+                    enMillis(histograma.getValueAtPercentile(50)), enMillis(histograma.getValueAtPercentile(99)),
+                    enMillis(histograma.getValueAtPercentile(99.9)), enMillis(histograma.getMaxValue()));
+            histograma.outputPercentileDistribution(salida, 1000.0);
+        }
+    }
+
+    /**
+     * Guarda un fichero .hgrm por endpoint, que se puede abrir con el HdrHistogram plotter.
+     */
+    public void guardarInforme(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        for (Map.Entry<String, Histogram> entrada : latencias.entrySet()) {
+            try (PrintStream salida = new PrintStream(Files.newOutputStream(directorio.resolve(entrada.getKey() + ".hgrm")))) {
+                entrada.getValue().outputPercentileDistribution(salida, 1000.0);
+            }
+        }
+    }
+
+    private Operacion elegir() {
+        int valor = random.nextInt(pesoTotal);
+        for (Operacion operacion : operaciones) {
+            valor -= operacion.peso();
+            if (valor < 0) {
+                return operacion;
+            }
+        }
+        return operaciones.get(operaciones.size() - 1);
+    }
+
+    private void registrar(Operacion operacion, long previsto, HttpResponse<Void> respuesta, Throwable error) {
+        long latenciaMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - previsto);
+        if (error != null || respuesta.statusCode() >= 500 && respuesta.statusCode() != 503) {
+            fallidas.get(operacion.nombre()).increment();
+        } else if (respuesta.statusCode() == 503) {
+            rechazadas.get(operacion.nombre()).increment();
+        } else {
+            latencias.get(operacion.nombre()).recordValue(Math.max(1, latenciaMicros));
+        }
+    }
+
+    private static void esperarHasta(long instanteNanos) {
+        long restante;
+        while ((restante = instanteNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    private static double enMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.perfulandia.mic_reportes_fase2.carga;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Generador de datos sinteticos para la tabla {@code reportes}.
+ * Inserta filas con inserciones por lotes (JDBC batch) para poder sembrar millones de reportes
+ * en pocos segundos. La distribucion imita produccion: tres areas (1 ventas, 2 inventario, 3 usuarios),
+ * pocos usuarios muy activos y muchos ocasionales, y fechas repartidas en el ultimo año.
+ */
+public class GeneradorReportes {
+
+    private static final String INSERT = "INSERT INTO reportes (id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte) VALUES (?, ?, ?, ?)";
+
+    private static final String[] AREAS = {"1", "2", "3"};
+
+    private static final String[] PLANTILLAS = {
+            "Venta registrada del producto %d por un total de %d pesos",
+            "Stock bajo del producto %d, quedan %d unidades en bodega",
+            "Usuario %d actualizo sus datos de contacto (intento %d)",
+            "Devolucion del pedido %d procesada, monto %d",
+            "Inventario ajustado para el producto %d: %d unidades"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int filasPorLote;
+    private final int usuarios;
+    private final SplittableRandom random;
+
+    public GeneradorReportes(JdbcTemplate jdbcTemplate, int filasPorLote, int usuarios, long semilla) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filasPorLote = filasPorLote;
+        this.usuarios = usuarios;
+        this.random = new SplittableRandom(semilla);
+    }
+
+    /**
+     * Inserta {@code filas} reportes y devuelve el numero de filas insertadas.
+     */
+    public long sembrar(long filas) {
+        LocalDate hoy = LocalDate.now();
+        List<Object[]> lote = new ArrayList<>(filasPorLote);
+        long insertadas = 0;
+        for (long i = 0; i < filas; i++) {
+            lote.add(filaAleatoria(hoy));
+            if (lote.size() == filasPorLote) {
+                insertadas += insertar(lote);
+            }
+        }
+        if (!lote.isEmpty()) {
+            insertadas += insertar(lote);
+        }
+        return insertadas;
+    }
+
+    /**
+     * Crea un reporte aleatorio con la misma distribucion que los sembrados, util para las escrituras de la carga.
+     */
+    public Object[] filaAleatoria(LocalDate hoy) {
+        String area = AREAS[random.nextInt(AREAS.length)];
+        String usuario = "user" + usuarioSesgado();
+        String plantilla = PLANTILLAS[random.nextInt(PLANTILLAS.length)];
+        String mensaje = String.format(plantilla, random.nextInt(10_000), random.nextInt(1_000));
+        Date fecha = Date.valueOf(hoy.minusDays(random.nextInt(365)));
+        return new Object[]{area, usuario, mensaje, fecha};
+    }
+
+    // El cuadrado de un uniforme concentra la mayoria de los reportes en los primeros usuarios
+    private int usuarioSesgado() {
+        double u = random.nextDouble();
+        return 1 + (int) (u * u * usuarios);
+    }
+
+    private int insertar(List<Object[]> lote) {
+        int filas = lote.size();
+        jdbcTemplate.batchUpdate(INSERT, lote);
+        lote.clear();
+        return filas;
+    }
+}
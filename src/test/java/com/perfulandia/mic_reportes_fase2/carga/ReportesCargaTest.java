@@ -0,0 +1,135 @@
+package com.perfulandia.mic_reportes_fase2.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de extremo a extremo contra los controladores reales y una base H2 embebida.
+ * Solo se ejecuta con el perfil Maven {@code carga} ({@code mvn -Pcarga test}); los parametros se pasan
+ * como propiedades del sistema, por ejemplo {@code -Dcarga.filas=2000000 -Dcarga.tasa=800}.
+ * Falla si el p99 de algun endpoint supera el presupuesto de latencia o si el control de admision
+ * rechaza (503) mas de {@code carga.rechazo-maximo} de sus peticiones.
+ */
+@Tag("carga")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportesCargaTest {
+
+    private static final long FILAS = Long.getLong("carga.filas", 200_000);
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 5_000);
+    private static final int TASA = Integer.getInteger("carga.tasa", 300);
+    private static final int DURACION_SEGUNDOS = Integer.getInteger("carga.duracion-segundos", 30);
+    private static final long P99_MAXIMO_MS = Long.getLong("carga.p99-maximo-ms", 250);
+    private static final double RECHAZO_MAXIMO = Double.parseDouble(System.getProperty("carga.rechazo-maximo", "0.01"));
+    private static final long SEMILLA = Long.getLong("carga.semilla", 42);
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private GeneradorReportes generador;
+
+    /**
+     * Siembra la base embebida una sola vez para toda la clase.
+     */
+    @BeforeAll
+    void sembrarDatos() {
+        generador = new GeneradorReportes(jdbcTemplate, 5_000, USUARIOS, SEMILLA);
+        long inicio = System.nanoTime();
+        long insertadas = generador.sembrar(FILAS);
+        System.out.printf("Sembrados %d reportes en %d ms%n", insertadas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Ejecuta la mezcla de lecturas y escrituras a tasa fija y comprueba, por endpoint,
+     * el presupuesto de p99 y la fraccion maxima de peticiones rechazadas.
+     */
+    @Test
+    void testLatenciaBajoCargaMixta() throws Exception {
+        // Arrange
+        String base = "http://localhost:" + puerto + "/api/v1/reportes";
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<ConductorCarga.Operacion> mezcla = List.of(
+                new ConductorCarga.Operacion("GET_por_id", 70,
+                        () -> HttpRequest.newBuilder(URI.create(base + "/" + idExistente(random))).GET().build()),
+                new ConductorCarga.Operacion("POST_crear", 20,
+                        () -> conCuerpo(HttpRequest.newBuilder(URI.create(base)), "POST", nuevoReporte())),
+                new ConductorCarga.Operacion("PUT_actualizar", 10,
+                        () -> conCuerpo(HttpRequest.newBuilder(URI.create(base + "/" + idExistente(random))), "PUT", nuevoReporte())));
+
+        ConductorCarga conductor = new ConductorCarga(cliente, mezcla, SEMILLA);
+
+        // Act
+        conductor.ejecutar(TASA, Duration.ofSeconds(DURACION_SEGUNDOS), Duration.ofSeconds(60));
+
+        // Assert
+        conductor.imprimirInforme(System.out);
+        conductor.guardarInforme(Path.of("target", "carga"));
+        for (Map.Entry<String, Histogram> entrada : conductor.getLatencias().entrySet()) {
+            long p99Ms = entrada.getValue().getValueAtPercentile(99) / 1000;
+            assertThat(conductor.getFallidas(entrada.getKey()))
+                    .as("Peticiones fallidas en %s", entrada.getKey())
+                    .isZero();
+            assertThat(conductor.getFraccionRechazada(entrada.getKey()))
+                    .as("Fraccion rechazada con 503 en %s (maximo %.3f)", entrada.getKey(), RECHAZO_MAXIMO)
+                    .isLessThanOrEqualTo(RECHAZO_MAXIMO);
+            assertThat(p99Ms)
+                    .as("p99 de %s (presupuesto %d ms)", entrada.getKey(), P99_MAXIMO_MS)
+                    .isLessThanOrEqualTo(P99_MAXIMO_MS);
+        }
+    }
+
+    private long idExistente(SplittableRandom random) {
+        return 1 + random.nextLong(FILAS);
+    }
+
+    private Reportes nuevoReporte() {
+        Object[] fila = generador.filaAleatoria(LocalDate.now());
+        return new Reportes(null, (String) fila[0], (String) fila[1], (String) fila[2], (Date) fila[3]);
+    }
+
+    private HttpRequest conCuerpo(HttpRequest.Builder builder, String metodo, Reportes reporte) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(reporte)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clase de pruebas unitarias para {@link GradientLimiter}.
+ * Se alimentan latencias sinteticas para comprobar que el limite se adapta a la carga.
+ */
+class GradientLimiterTest {
+
+    private static final long UN_MS = 1_000_000L;
+
+    /**
+     * Verifica que no se conceden mas permisos que el limite actual
+     * y que al liberar uno se puede volver a adquirir.
+     */
+    @Test
+    void testRechazaAlSuperarElLimite() {
+        // Arrange
+        GradientLimiter limitador = new GradientLimiter(2, 1, 10, 1.5, 0.2);
+
+        // Act & Assert
+        assertThat(limitador.tryAcquire()).isTrue();
+        assertThat(limitador.tryAcquire()).isTrue();
+        assertThat(limitador.tryAcquire()).isFalse(); // El tercer permiso supera el limite
+
+        limitador.release(UN_MS);
+        assertThat(limitador.tryAcquire()).isTrue();
+        assertThat(limitador.getEnVuelo()).isEqualTo(2);
+    }
+
+    /**
+     * Verifica que el limite baja cuando la latencia sube respecto a la media de largo plazo.
+     */
+    @Test
+    void testReduceElLimiteCuandoSubeLaLatencia() {
+        // Arrange: se mantienen dos permisos ocupados para que el limitador se considere en uso
+        GradientLimiter limitador = new GradientLimiter(4, 1, 50, 1.5, 0.2);
+        limitador.tryAcquire();
+        limitador.tryAcquire();
+
+        // Act: primero latencia estable, luego la base de datos se degrada
+        simularLlamadas(limitador, 100, UN_MS);
+        int limiteSinCarga = limitador.getLimite();
+        simularLlamadas(limitador, 100, 20 * UN_MS);
+        int limiteConCarga = limitador.getLimite();
+
+        // Assert
+        assertThat(limiteSinCarga).isGreaterThanOrEqualTo(4);
+        assertThat(limiteConCarga).isLessThan(limiteSinCarga);
+    }
+
+    private void simularLlamadas(GradientLimiter limitador, int llamadas, long rttNanos) {
+        for (int i = 0; i < llamadas; i++) {
+            if (limitador.tryAcquire()) {
+                limitador.release(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.perfulandia.mic_reportes_fase2.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Clase de pruebas unitarias para {@link SingleFlight}.
+ * La primera llamada se bloquea con un latch para que las demas lleguen mientras esta en curso.
+ */
+class SingleFlightTest {
+
+    private static final int LLAMADAS = 8;
+
+    private final ExecutorService hilos = Executors.newFixedThreadPool(LLAMADAS);
+
+    private final SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(), new AdmissionControlProperties(), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        hilos.shutdownNow();
+    }
+
+    /**
+     * Verifica que llamadas concurrentes con la misma clave ejecutan una sola consulta
+     * y que las que esperan reciben una copia del resultado.
+     */
+    @Test
+    void testAgrupaLlamadasIdenticas() throws Exception {
+        // Arrange
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // Act
+        resultados.add(hilos.submit(() -> singleFlight.ejecutar("findById", () -> {
+            consultas.incrementAndGet();
+            await(liberar);
+            return "reporte";
+        }, valor -> valor + "-copia", 1L)));
+        esperarAQueEsteEnCurso(consultas);
+        for (int i = 1; i < LLAMADAS; i++) {
+            resultados.add(hilos.submit(() -> singleFlight.ejecutar("findById", () -> {
+                consultas.incrementAndGet();
+                return "reporte";
+            }, valor -> valor + "-copia", 1L)));
+        }
+        Thread.sleep(100); // Deja que las llamadas lleguen mientras la primera sigue en curso
+        liberar.countDown();
+
+        // Assert
+        assertThat(resultados.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("reporte");
+        for (int i = 1; i < LLAMADAS; i++) {
+            assertThat(resultados.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("reporte-copia");
+        }
+        assertThat(consultas.get()).isEqualTo(1);
+    }
+
+    /**
+     * Verifica que si la consulta en curso falla, las llamadas que la esperaban reciben la misma excepcion.
+     */
+    @Test
+    void testPropagaElErrorATodas() throws Exception {
+        // Arrange
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> primera = hilos.submit(() -> singleFlight.<String>ejecutar("findAll", () -> {
+            consultas.incrementAndGet();
+            await(liberar);
+            throw new IllegalStateException("MySQL no responde");
+        }, valor -> valor));
+        esperarAQueEsteEnCurso(consultas);
+        Future<String> segunda = hilos.submit(() -> singleFlight.ejecutar("findAll", () -> "no deberia ejecutarse", valor -> valor));
+
+        // Act
+        Thread.sleep(100);
+        liberar.countDown();
+
+        // Assert
+        assertThatThrownBy(() -> primera.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> segunda.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("MySQL no responde");
+    }
+
+    /**
+     * Verifica que una llamada que espera demasiado falla con {@link SingleFlightTimeoutException}
+     * y el Retry-After configurado en {@code reportes.admision.retry-after-segundos}.
+     */
+    @Test
+    void testTimeoutDeLaEspera() throws Exception {
+        // Arrange
+        SingleFlightProperties propiedades = new SingleFlightProperties();
+        propiedades.getTimeoutPorOperacionMs().put("findAll", 50L);
+        AdmissionControlProperties admision = new AdmissionControlProperties();
+        admision.setRetryAfterSegundos(7);
+        SingleFlight conTimeout = new SingleFlight(propiedades, admision, new SimpleMeterRegistry());
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        hilos.submit(() -> conTimeout.ejecutar("findAll", () -> {
+            consultas.incrementAndGet();
+            await(liberar);
+            return "lento";
+        }, valor -> valor));
+        esperarAQueEsteEnCurso(consultas);
+
+        // Act & Assert
+        try {
+            assertThatThrownBy(() -> conTimeout.ejecutar("findAll", () -> "otro", valor -> valor))
+                    .isInstanceOf(SingleFlightTimeoutException.class)
+                    .extracting(e -> ((SingleFlightTimeoutException) e).getRetryAfterSegundos())
+                    .isEqualTo(7L);
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    private static void esperarAQueEsteEnCurso(AtomicInteger consultas) throws InterruptedException {
+        while (consultas.get() == 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
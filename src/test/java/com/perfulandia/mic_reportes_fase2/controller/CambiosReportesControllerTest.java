@@ -0,0 +1,86 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import com.perfulandia.mic_reportes_fase2.model.PaginaCambios;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
+import com.perfulandia.mic_reportes_fase2.service.CambiosNoDisponiblesException;
+import com.perfulandia.mic_reportes_fase2.service.CursorExpiradoException;
+import com.perfulandia.mic_reportes_fase2.service.ReportesCambiosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Clase de pruebas unitarias para {@link CambiosReportesController}.
+ * Utiliza {@code @WebMvcTest} y simula {@link ReportesCambiosService} con {@code @MockBean}.
+ */
+@WebMvcTest(CambiosReportesController.class)
+class CambiosReportesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportesCambiosService cambiosService;
+
+    /**
+     * Prueba para GET /api/v1/reportes/changes con un cursor valido.
+     * Verifica que se devuelven los cambios y el siguiente cursor, y que el limite se acota a 1000.
+     */
+    @Test
+    void testGetCambios() throws Exception {
+        // Arrange
+        ReporteCambio borrado = new ReporteCambio(42L, 7L, ReporteCambio.DELETE, null, null, null, null, LocalDateTime.now());
+        when(cambiosService.cambiosDesde(41L, 1000)).thenReturn(new PaginaCambios(List.of(borrado), 42L, false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/changes").param("since", "41").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cambios[0].secuencia").value(42L))
+                .andExpect(jsonPath("$.cambios[0].operacion").value("DELETE"))
+                .andExpect(jsonPath("$.siguienteCursor").value(42L))
+                .andExpect(jsonPath("$.hayMas").value(false));
+
+        // Verify
+        verify(cambiosService).cambiosDesde(41L, 1000);
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/changes con un cursor ya compactado.
+     * Verifica que se responde 410 GONE con el cursor minimo disponible.
+     */
+    @Test
+    void testGetCambiosCursorExpirado() throws Exception {
+        // Arrange
+        when(cambiosService.cambiosDesde(3L, 500)).thenThrow(new CursorExpiradoException(3L, 100L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/changes").param("since", "3"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.cursorMinimo").value(100L));
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/changes con sharding habilitado.
+     * Verifica que se responde 501 NOT_IMPLEMENTED, ya que en ese modo no se anotan cambios.
+     */
+    @Test
+    void testGetCambiosConSharding() throws Exception {
+        // Arrange
+        when(cambiosService.cambiosDesde(0L, 500)).thenThrow(new CambiosNoDisponiblesException());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/changes"))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
@@ -0,0 +1,90 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PaginaReportes;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.service.ReportesService;
+import com.perfulandia.mic_reportes_fase2.sharding.ShardNoDisponibleException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Clase de pruebas unitarias para {@link ConsultasReportesController}.
+ * Utiliza {@code @WebMvcTest} y simula {@link ReportesService} con {@code @MockBean}.
+ */
+@WebMvcTest(ConsultasReportesController.class)
+class ConsultasReportesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportesService reportesService;
+
+    /**
+     * Prueba para GET /api/v1/reportes/consultas con filtro.
+     * Verifica que el filtro llega al servicio y que el tamano se acota a 500.
+     */
+    @Test
+    void testBuscar() throws Exception {
+        // Arrange
+        FiltroReportes filtro = new FiltroReportes("Ventas", null, LocalDate.of(2024, 5, 1), null);
+        Reportes reporte = new Reportes(7L, "Ventas", "user1", "Reporte de ventas", Date.valueOf("2024-05-02"));
+        when(reportesService.buscar(filtro, 2, 500)).thenReturn(new PaginaReportes(List.of(reporte), 2, 500, 1001));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/consultas")
+                .param("area", "Ventas").param("desde", "2024-05-01")
+                .param("pagina", "2").param("tamano", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reportes[0].id").value(7L))
+                .andExpect(jsonPath("$.total").value(1001));
+
+        // Verify
+        verify(reportesService).buscar(filtro, 2, 500);
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/consultas con una pagina demasiado profunda.
+     * Verifica que se responde 400 sin consultar el servicio.
+     */
+    @Test
+    void testBuscarPaginaProfunda() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/consultas").param("pagina", "100").param("tamano", "500"))
+                .andExpect(status().isBadRequest());
+
+        // Verify
+        verify(reportesService, never()).buscar(any(), anyInt(), anyInt());
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/consultas cuando un shard no responde.
+     * Verifica que se responde 503 con Retry-After.
+     */
+    @Test
+    void testBuscarShardNoDisponible() throws Exception {
+        // Arrange
+        when(reportesService.buscar(any(), anyInt(), anyInt())).thenThrow(new ShardNoDisponibleException("buscar", 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/consultas"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaTopUsuarios;
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaUsuariosDistintos;
+import com.perfulandia.mic_reportes_fase2.service.ReportesEstadisticasService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Clase de pruebas unitarias para {@link EstadisticasReportesController}.
+ * Utiliza {@code @WebMvcTest} y simula {@link ReportesEstadisticasService} con {@code @MockBean}.
+ */
+@WebMvcTest(EstadisticasReportesController.class)
+class EstadisticasReportesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportesEstadisticasService estadisticasService;
+
+    /**
+     * Prueba para GET /api/v1/reportes/estadisticas/usuarios-distintos con area y rango.
+     * Verifica que se devuelve la estimacion con su intervalo.
+     */
+    @Test
+    void testGetUsuariosDistintos() throws Exception {
+        // Arrange
+        LocalDate desde = LocalDate.of(2024, 5, 1);
+        LocalDate hasta = LocalDate.of(2024, 5, 7);
+        when(estadisticasService.usuariosDistintos("1", desde, hasta))
+                .thenReturn(new EstadisticaUsuariosDistintos("1", desde, hasta, 1000, 0.008, 984, 1016));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/estadisticas/usuarios-distintos")
+                .param("area", "1").param("desde", "2024-05-01").param("hasta", "2024-05-07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estimacion").value(1000))
+                .andExpect(jsonPath("$.minimo95").value(984));
+
+        // Verify
+        verify(estadisticasService).usuariosDistintos("1", desde, hasta);
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/estadisticas/usuarios-distintos sin fechas.
+     * Verifica que se consulta el dia actual para todas las areas.
+     */
+    @Test
+    void testGetUsuariosDistintosSinFechas() throws Exception {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        when(estadisticasService.usuariosDistintos(null, hoy, hoy))
+                .thenReturn(new EstadisticaUsuariosDistintos(null, hoy, hoy, 0, 0.008, 0, 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/estadisticas/usuarios-distintos"))
+                .andExpect(status().isOk());
+
+        // Verify
+        verify(estadisticasService).usuariosDistintos(null, hoy, hoy);
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/estadisticas/usuarios-distintos con desde posterior a hasta.
+     * Verifica que se responde 400 BAD_REQUEST sin consultar el servicio.
+     */
+    @Test
+    void testGetUsuariosDistintosRangoInvalido() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/estadisticas/usuarios-distintos")
+                .param("desde", "2024-05-07").param("hasta", "2024-05-01"))
+                .andExpect(status().isBadRequest());
+
+        // Verify
+        verify(estadisticasService, never()).usuariosDistintos(any(), any(), any());
+    }
+
+    /**
+     * Prueba para GET /api/v1/reportes/estadisticas/top-usuarios.
+     * Verifica que se devuelven los usuarios con sus cotas y que n menor que 1 es un 400.
+     */
+    @Test
+    void testGetTopUsuarios() throws Exception {
+        // Arrange
+        LocalDate dia = LocalDate.of(2024, 5, 1);
+        when(estadisticasService.topUsuarios(dia, dia, 2)).thenReturn(new EstadisticaTopUsuarios(dia, dia, 50, 0, 0.99,
+                List.of(new EstadisticaTopUsuarios.UsuarioFrecuente("user1", 30, 28))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/estadisticas/top-usuarios")
+                .param("desde", "2024-05-01").param("hasta", "2024-05-01").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuarios[0].id_usuario").value("user1"))
+                .andExpect(jsonPath("$.usuarios[0].minimoGarantizado").value(28));
+        mockMvc.perform(get("/api/v1/reportes/estadisticas/top-usuarios").param("n", "0"))
+                .andExpect(status().isBadRequest());
+
+        // Verify: la peticion con n=0 no llega al servicio
+        verify(estadisticasService, times(1)).topUsuarios(any(), any(), anyInt());
+    }
+
+    /**
+     * Prueba para POST /api/v1/reportes/estadisticas/reconstruccion.
+     * Verifica que se devuelve el numero de reportes leidos.
+     */
+    @Test
+    void testReconstruir() throws Exception {
+        // Arrange
+        when(estadisticasService.reconstruir()).thenReturn(1234L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/reportes/estadisticas/reconstruccion"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1234"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.perfulandia.mic_reportes_fase2.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PurgaReportes;
+import com.perfulandia.mic_reportes_fase2.service.ReportesPurgaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Clase de pruebas unitarias para {@link PurgaReportesController}.
+ * Utiliza {@code @WebMvcTest} y simula {@link ReportesPurgaService} con {@code @MockBean}.
+ */
+@WebMvcTest(PurgaReportesController.class)
+class PurgaReportesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportesPurgaService purgaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Prueba para POST /api/v1/reportes/purgas con un filtro valido.
+     * Verifica que se responde 202 ACCEPTED con la cabecera Location de la purga.
+     */
+    @Test
+    void testIniciarPurga() throws Exception {
+        // Arrange
+        FiltroReportes filtro = new FiltroReportes("1", "user7", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+        when(purgaService.iniciar(any(FiltroReportes.class))).thenReturn(new PurgaReportes("abc", filtro));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/reportes/purgas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filtro)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/reportes/purgas/abc"))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"))
+                .andExpect(jsonPath("$.borrados").value(0));
+
+        // Verify
+        verify(purgaService).iniciar(any(FiltroReportes.class));
+    }
+
+    /**
+     * Prueba para POST /api/v1/reportes/purgas sin criterios.
+     * Verifica que se responde 400 BAD_REQUEST y que no se inicia ninguna purga.
+     */
+    @Test
+    void testIniciarPurgaSinFiltro() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/reportes/purgas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        // Verify
+        verify(purgaService, never()).iniciar(any(FiltroReportes.class));
+    }
+
+    /**
+     * Prueba para POST /api/v1/reportes/purgas con desde posterior a hasta.
+     * Verifica que se responde 400 BAD_REQUEST y que no se inicia ninguna purga.
+     */
+    @Test
+    void testIniciarPurgaRangoInvalido() throws Exception {
+        // Arrange
+        FiltroReportes filtro = new FiltroReportes("1", null, LocalDate.of(2023, 2, 1), LocalDate.of(2023, 1, 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/reportes/purgas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filtro)))
+                .andExpect(status().isBadRequest());
+
+        // Verify
+        verify(purgaService, never()).iniciar(any(FiltroReportes.class));
+    }
+
+    /**
+     * Prueba para DELETE /api/v1/reportes/purgas/{id} cuando la purga no existe.
+     * Verifica que se responde 404 NOT_FOUND.
+     */
+    @Test
+    void testCancelarPurgaNoExistente() throws Exception {
+        // Arrange
+        when(purgaService.cancelar("nope")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/reportes/purgas/{id}", "nope"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,6 +1,7 @@
 package com.perfulandia.mic_reportes_fase2.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.mic_reportes_fase2.concurrency.AdmissionRejectedException;
 import com.perfulandia.mic_reportes_fase2.model.Reportes;
 import com.perfulandia.mic_reportes_fase2.service.ReportesService;
 import org.junit.jupiter.api.Test;
@@ -225,4 +226,22 @@ class ReportesControllerTest {
         // Verify
         verify(reportesService).deleteById(reporteId); // Verifica que el método deleteById() del servicio fue llamado
     }
+
+    /**
+     * Prueba para el endpoint GET /api/v1/reportes cuando el control de admision rechaza la peticion.
+     * Verifica que se retorna un estado HTTP 503 SERVICE_UNAVAILABLE con la cabecera Retry-After.
+     */
+    @Test
+    void testGetAllReportesRechazadoPorAdmision() throws Exception {
+        // Arrange
+        when(reportesService.findAll()).thenThrow(new AdmissionRejectedException("Limite de concurrencia alcanzado", 2));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes"))
+                .andExpect(status().isServiceUnavailable()) // Espera un estado HTTP 503 SERVICE_UNAVAILABLE
+                .andExpect(header().string("Retry-After", "2"));
+
+        // Verify
+        verify(reportesService).findAll();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+import com.perfulandia.mic_reportes_fase2.model.PaginaCambios;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.repository.ReporteCambioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Clase de pruebas para {@link ReportesCambiosService} contra la base H2 con las migraciones de Flyway.
+ * Sin transaccion de prueba: cada cambio se confirma al guardarse, como en produccion.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportesCambiosServiceTest {
+
+    @Autowired
+    private ReporteCambioRepository cambioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Verifica que registrado_en lo asigna el reloj de la base de datos y que un cambio
+     * solo se sirve cuando ha pasado el retraso de visibilidad, medido con ese mismo reloj.
+     */
+    @Test
+    void testCambiosVisiblesTrasElRetraso() throws Exception {
+        // Arrange
+        Long maxima = cambioRepository.findMaxSecuencia();
+        long desde = maxima == null ? 0 : maxima;
+        Reportes reporte = new Reportes(500L, "1", "user1", "Reporte", Date.valueOf("2024-05-01"));
+        ReporteCambio insertado = cambioRepository.save(ReporteCambio.de(ReporteCambio.INSERT, reporte));
+        ReporteCambio borrado = cambioRepository.save(ReporteCambio.borrado(500L));
+        Thread.sleep(20);
+
+        ReportesCambiosService conRetrasoLargo = new ReportesCambiosService(cambioRepository, 60_000, 7, 5000, 3, false);
+        ReportesCambiosService sinRetraso = new ReportesCambiosService(cambioRepository, 0, 7, 5000, 3, false);
+
+        // Act
+        PaginaCambios aunNoVisibles = conRetrasoLargo.cambiosDesde(desde, 10);
+        PaginaCambios visibles = sinRetraso.cambiosDesde(desde, 10);
+
+        // Assert
+        assertThat(aunNoVisibles.getCambios()).isEmpty();
+        assertThat(aunNoVisibles.getSiguienteCursor()).isEqualTo(desde);
+        assertThat(visibles.getCambios()).extracting(ReporteCambio::getSecuencia)
+                .containsExactly(insertado.getSecuencia(), borrado.getSecuencia());
+        assertThat(visibles.getCambios()).allSatisfy(cambio -> assertThat(cambio.getRegistradoEn()).isNotNull());
+        assertThat(visibles.getSiguienteCursor()).isEqualTo(borrado.getSecuencia());
+        assertThat(visibles.isHayMas()).isFalse();
+    }
+
+    /**
+     * Verifica que la compactacion mide la retencion con el reloj de la base de datos
+     * y conserva siempre el ultimo cambio, aunque sea antiguo.
+     */
+    @Test
+    void testCompactarConElRelojDeLaBaseDeDatos() {
+        // Arrange: el primero y el ultimo cambio se registraron hace 10 dias segun la base de datos
+        Reportes reporte = new Reportes(600L, "1", "user1", "Reporte", Date.valueOf("2024-05-01"));
+        ReporteCambio antiguo = cambioRepository.save(ReporteCambio.de(ReporteCambio.INSERT, reporte));
+        ReporteCambio reciente = cambioRepository.save(ReporteCambio.de(ReporteCambio.UPDATE, reporte));
+        ReporteCambio ultimo = cambioRepository.save(ReporteCambio.borrado(600L));
+        jdbcTemplate.update("UPDATE reportes_cambios SET registrado_en = TIMESTAMPADD(DAY, -10, CURRENT_TIMESTAMP(6))"
+                + " WHERE secuencia IN (?, ?)", antiguo.getSecuencia(), ultimo.getSecuencia());
+        ReportesCambiosService cambiosService = new ReportesCambiosService(cambioRepository, 0, 7, 5000, 3, false);
+
+        // Act
+        long borrados = cambiosService.compactar();
+
+        // Assert
+        assertThat(borrados).isEqualTo(1);
+        assertThat(cambioRepository.existsById(antiguo.getSecuencia())).isFalse();
+        assertThat(cambioRepository.existsById(reciente.getSecuencia())).isTrue();
+        assertThat(cambioRepository.existsById(ultimo.getSecuencia())).isTrue();
+    }
+
+    /**
+     * Verifica que con sharding habilitado el registro de cambios se rechaza en vez de devolver
+     * los cambios de la base principal, que no reflejan las escrituras en los shards.
+     */
+    @Test
+    void testCambiosNoDisponiblesConSharding() {
+        // Arrange
+        ReportesCambiosService conSharding = new ReportesCambiosService(cambioRepository, 0, 7, 5000, 3, true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> conSharding.cambiosDesde(0, 10)).isInstanceOf(CambiosNoDisponiblesException.class);
+    }
+}
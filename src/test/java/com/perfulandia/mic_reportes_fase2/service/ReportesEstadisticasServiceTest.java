@@ -0,0 +1,212 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+import com.perfulandia.mic_reportes_fase2.BasesH2;
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaTopUsuarios;
+import com.perfulandia.mic_reportes_fase2.model.EstadisticaUsuariosDistintos;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.sharding.GeneradorIds;
+import com.perfulandia.mic_reportes_fase2.sharding.ReportesShardedRepository;
+import com.perfulandia.mic_reportes_fase2.sharding.ShardRouter;
+import com.perfulandia.mic_reportes_fase2.sharding.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Clase de pruebas para {@link ReportesEstadisticasService}: filtrado por area, ventana de retencion,
+ * limite de areas por dia, reconstruccion desde una base H2 y checkpoint en disco.
+ */
+class ReportesEstadisticasServiceTest {
+
+    private static final LocalDate HOY = LocalDate.now();
+
+    @TempDir
+    Path directorio;
+
+    private DataSource fuente;
+    private JdbcTemplate jdbcTemplate;
+    private ReportesEstadisticasService estadisticasService;
+
+    @BeforeEach
+    void setUp() {
+        fuente = BasesH2.migrada("estadisticas");
+        jdbcTemplate = new JdbcTemplate(fuente);
+        estadisticasService = nuevoServicio();
+    }
+
+    @AfterEach
+    void tearDown() {
+        BasesH2.cerrar(fuente);
+    }
+
+    /**
+     * Verifica que los usuarios distintos se cuentan por area y que sin area se combinan todas.
+     */
+    @Test
+    void testUsuariosDistintosPorArea() {
+        // Arrange: 300 usuarios en el area 1 y 100 en el area 2, de los cuales 50 tambien estan en la 1
+        for (int i = 0; i < 300; i++) {
+            estadisticasService.registrar(reporte("1", "user" + i, HOY));
+        }
+        for (int i = 250; i < 350; i++) {
+            estadisticasService.registrar(reporte("2", "user" + i, HOY));
+        }
+
+        // Act
+        EstadisticaUsuariosDistintos area1 = estadisticasService.usuariosDistintos("1", HOY, HOY);
+        EstadisticaUsuariosDistintos area2 = estadisticasService.usuariosDistintos("2", HOY, HOY);
+        EstadisticaUsuariosDistintos todas = estadisticasService.usuariosDistintos(null, HOY, HOY);
+
+        // Assert
+        assertThat((double) area1.getEstimacion()).isCloseTo(300, within(15.0));
+        assertThat((double) area2.getEstimacion()).isCloseTo(100, within(5.0));
+        assertThat((double) todas.getEstimacion()).isCloseTo(350, within(15.0));
+        assertThat(estadisticasService.usuariosDistintos("3", HOY, HOY).getEstimacion()).isZero();
+    }
+
+    /**
+     * Verifica que solo cuentan los dias dentro de la ventana retenida y del rango pedido.
+     */
+    @Test
+    void testRetencionYRangoDeDias() {
+        // Arrange: ventana de 3 dias
+        estadisticasService = new ReportesEstadisticasService(jdbcTemplate, 3, directorio.resolve("sketches.bin").toString());
+        estadisticasService.registrar(reporte("1", "hoy", HOY));
+        estadisticasService.registrar(reporte("1", "anteayer", HOY.minusDays(2)));
+        estadisticasService.registrar(reporte("1", "antiguo", HOY.minusDays(3)));
+
+        // Act
+        EstadisticaTopUsuarios semana = estadisticasService.topUsuarios(HOY.minusDays(7), HOY, 10);
+        EstadisticaTopUsuarios soloHoy = estadisticasService.topUsuarios(HOY, HOY, 10);
+
+        // Assert
+        assertThat(semana.getTotalReportes()).isEqualTo(2);
+        assertThat(semana.getUsuarios()).extracting(EstadisticaTopUsuarios.UsuarioFrecuente::getId_usuario)
+                .containsExactlyInAnyOrder("hoy", "anteayer");
+        assertThat(soloHoy.getTotalReportes()).isEqualTo(1);
+    }
+
+    /**
+     * Verifica que las areas que superan el maximo diario se acumulan en "otros" sin perder usuarios.
+     */
+    @Test
+    void testAreasPorEncimaDelMaximoVanAOtros() {
+        // Arrange: cada reporte con un area aleatoria distinta
+        int areas = ReportesEstadisticasService.MAXIMO_AREAS_POR_DIA + 100;
+        for (int i = 0; i < areas; i++) {
+            estadisticasService.registrar(reporte(UUID.randomUUID().toString(), "user" + i, HOY));
+        }
+
+        // Act
+        long otros = estadisticasService.usuariosDistintos(ReportesEstadisticasService.AREA_OTROS, HOY, HOY).getEstimacion();
+        long todas = estadisticasService.usuariosDistintos(null, HOY, HOY).getEstimacion();
+
+        // Assert
+        assertThat((double) otros).isCloseTo(100, within(5.0));
+        assertThat((double) todas).isCloseTo(areas, within(8.0));
+    }
+
+    /**
+     * Verifica que la reconstruccion recalcula los sketches a partir de la tabla,
+     * ignorando los reportes fuera de la ventana y descartando lo que hubiera en memoria.
+     */
+    @Test
+    void testReconstruirDesdeLaTabla() {
+        // Arrange
+        estadisticasService.registrar(reporte("1", "solo-en-memoria", HOY));
+        for (int i = 0; i < 40; i++) {
+            jdbcTemplate.update("INSERT INTO reportes (id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte) VALUES (?, ?, ?, ?)",
+                    "1", "user" + (i % 20), "Reporte " + i, Date.valueOf(HOY.minusDays(i % 2)));
+        }
+        jdbcTemplate.update("INSERT INTO reportes (id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte) VALUES (?, ?, ?, ?)",
+                "1", "antiguo", "Fuera de la ventana", Date.valueOf(HOY.minusDays(400)));
+
+        // Act
+        long leidos = estadisticasService.reconstruir();
+
+        // Assert
+        assertThat(leidos).isEqualTo(40);
+        assertThat(estadisticasService.usuariosDistintos("1", HOY.minusDays(1), HOY).getEstimacion()).isCloseTo(20L, within(1L));
+        assertThat(estadisticasService.topUsuarios(HOY.minusDays(1), HOY, 100).getUsuarios())
+                .extracting(EstadisticaTopUsuarios.UsuarioFrecuente::getId_usuario)
+                .doesNotContain("solo-en-memoria", "antiguo");
+    }
+
+    /**
+     * Verifica que con sharding la reconstruccion lee la tabla de cada shard y no la de la base principal.
+     */
+    @Test
+    void testReconstruirConShardingLeeTodosLosShards() {
+        // Arrange: 20 usuarios repartidos por area entre 3 shards; la base principal solo tiene un usuario que no debe contar
+        List<DataSource> shards = BasesH2.migradas("estadisticas_shard", 3);
+        ReportesShardedRepository shardedRepository = new ReportesShardedRepository(shards,
+                new ShardRouter(3, ShardingProperties.ClaveShard.AREA), new GeneradorIds(1), 5000, 1, 1);
+        for (int i = 0; i < 60; i++) {
+            shardedRepository.save(new Reportes(null, "area" + (i % 6), "user" + (i % 20), "Reporte " + i, Date.valueOf(HOY)));
+        }
+        jdbcTemplate.update("INSERT INTO reportes (id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte) VALUES (?, ?, ?, ?)",
+                "area0", "solo-en-principal", "Reporte", Date.valueOf(HOY));
+        estadisticasService.setShardedRepository(shardedRepository);
+
+        try {
+            // Act
+            long leidos = estadisticasService.reconstruir();
+
+            // Assert
+            assertThat(leidos).isEqualTo(60);
+            assertThat(estadisticasService.usuariosDistintos(null, HOY, HOY).getEstimacion()).isCloseTo(20L, within(1L));
+            assertThat(estadisticasService.topUsuarios(HOY, HOY, 100).getUsuarios())
+                    .extracting(EstadisticaTopUsuarios.UsuarioFrecuente::getId_usuario)
+                    .doesNotContain("solo-en-principal");
+        } finally {
+            BasesH2.cerrar(shards);
+            shardedRepository.close();
+        }
+    }
+
+    /**
+     * Verifica que un checkpoint guardado y cargado en otra instancia devuelve las mismas estadisticas.
+     */
+    @Test
+    void testCheckpointIdaYVuelta() {
+        // Arrange: el usuario u tiene u + 1 reportes repartidos en cinco dias, asi el top no tiene empates
+        for (int u = 0; u < 20; u++) {
+            for (int j = 0; j <= u; j++) {
+                estadisticasService.registrar(reporte(String.valueOf(1 + u % 3), "user" + u, HOY.minusDays(j % 5)));
+            }
+        }
+        EstadisticaTopUsuarios antes = estadisticasService.topUsuarios(HOY.minusDays(4), HOY, 5);
+        long distintosAntes = estadisticasService.usuariosDistintos("2", HOY.minusDays(4), HOY).getEstimacion();
+
+        // Act
+        estadisticasService.guardarCheckpoint();
+        ReportesEstadisticasService restaurado = nuevoServicio();
+        restaurado.cargarCheckpoint();
+
+        // Assert
+        assertThat(Files.exists(directorio.resolve("sketches.bin"))).isTrue();
+        assertThat(restaurado.topUsuarios(HOY.minusDays(4), HOY, 5)).isEqualTo(antes);
+        assertThat(restaurado.usuariosDistintos("2", HOY.minusDays(4), HOY).getEstimacion()).isEqualTo(distintosAntes);
+    }
+
+    private ReportesEstadisticasService nuevoServicio() {
+        return new ReportesEstadisticasService(jdbcTemplate, 35, directorio.resolve("sketches.bin").toString());
+    }
+
+    private static Reportes reporte(String area, String usuario, LocalDate fecha) {
+        return new Reportes(null, area, usuario, "Reporte", Date.valueOf(fecha));
+    }
+}
@@ -0,0 +1,200 @@
+package com.perfulandia.mic_reportes_fase2.service;
+
+import com.perfulandia.mic_reportes_fase2.BasesH2;
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PurgaReportes;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.sharding.GeneradorIds;
+import com.perfulandia.mic_reportes_fase2.sharding.ReportesShardedRepository;
+import com.perfulandia.mic_reportes_fase2.sharding.ShardRouter;
+import com.perfulandia.mic_reportes_fase2.sharding.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Clase de pruebas para {@link ReportesPurgaService} contra una base H2 en memoria con las migraciones de Flyway.
+ * Comprueba el borrado por lotes acotados, la pausa entre lotes, la cancelacion y el registro de cambios.
+ */
+class ReportesPurgaServiceTest {
+
+    private DataSource fuente;
+    private JdbcTemplate jdbcTemplate;
+    private ReportesPurgaService purgaService;
+
+    @BeforeEach
+    void setUp() {
+        fuente = BasesH2.migrada("purga");
+        jdbcTemplate = new JdbcTemplate(fuente);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (purgaService != null) {
+            purgaService.detener();
+        }
+        BasesH2.cerrar(fuente);
+    }
+
+    /**
+     * Verifica que la purga borra solo las filas del filtro en lotes de tamano-lote,
+     * deja una entrada DELETE por id en el registro de cambios y pausa entre lotes.
+     */
+    @Test
+    void testPurgaPorLotesConPausaYRegistroDeCambios() throws Exception {
+        // Arrange: 2.500 reportes del area 1 (tres lotes de 1.000) y 300 del area 2 que no se tocan
+        sembrar("1", 2500);
+        sembrar("2", 300);
+        purgaService = new ReportesPurgaService(jdbcTemplate, new DataSourceTransactionManager(fuente), 1000, 100, 1.0, 3);
+
+        // Act
+        PurgaReportes purga = purgaService.iniciar(new FiltroReportes("1", null, null, null));
+        esperarFin(purga);
+
+        // Assert
+        assertThat(purga.getEstado()).isEqualTo(PurgaReportes.Estado.COMPLETADA);
+        assertThat(purga.getBorrados()).isEqualTo(2500);
+        assertThat(purga.getLotes()).isEqualTo(3);
+        assertThat(contar("SELECT COUNT(*) FROM reportes WHERE id_area_reporte = '1'")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM reportes WHERE id_area_reporte = '2'")).isEqualTo(300);
+        assertThat(contar("SELECT COUNT(DISTINCT reporte_id) FROM reportes_cambios WHERE operacion = '" + ReporteCambio.DELETE + "'"))
+                .isEqualTo(2500);
+        // Dos pausas de al menos 100 ms entre los tres lotes
+        assertThat(Duration.between(purga.getInicio(), purga.getFin())).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    /**
+     * Verifica que al cancelar la purga termina tras el lote en curso, en estado CANCELADA,
+     * y que los contadores coinciden con las filas realmente borradas.
+     */
+    @Test
+    void testCancelarTrasElLoteEnCurso() throws Exception {
+        // Arrange: lotes de 100 con pausas largas para cancelar a mitad
+        sembrar("1", 1000);
+        purgaService = new ReportesPurgaService(jdbcTemplate, new DataSourceTransactionManager(fuente), 100, 300, 1.0, 3);
+        PurgaReportes purga = purgaService.iniciar(new FiltroReportes("1", null, null, null));
+        long limite = System.currentTimeMillis() + 10_000;
+        while (purga.getLotes() == 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        purgaService.cancelar(purga.getId());
+        esperarFin(purga);
+
+        // Assert
+        assertThat(purga.getEstado()).isEqualTo(PurgaReportes.Estado.CANCELADA);
+        assertThat(purga.getBorrados()).isLessThan(1000).isEqualTo(purga.getLotes() * 100L);
+        assertThat(contar("SELECT COUNT(*) FROM reportes")).isEqualTo(1000 - purga.getBorrados());
+        assertThat(contar("SELECT COUNT(*) FROM reportes_cambios")).isEqualTo(purga.getBorrados());
+    }
+
+    /**
+     * Verifica que una purga solo por fechas borra el rango pedido y que su seleccion por lotes
+     * usa el indice de fecha_reporte en lugar de recorrer la tabla.
+     */
+    @Test
+    void testPurgaSoloPorFechasUsaIndice() throws Exception {
+        // Arrange: 200 reportes en mayo y 100 en junio
+        sembrar("1", 200);
+        jdbcTemplate.update("UPDATE reportes SET fecha_reporte = '2024-06-01' WHERE id IN (SELECT id FROM reportes ORDER BY id LIMIT 100)");
+        purgaService = new ReportesPurgaService(jdbcTemplate, new DataSourceTransactionManager(fuente), 50, 0, 0, 3);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM reportes WHERE fecha_reporte >= '2024-05-01'"
+                + " AND fecha_reporte <= '2024-05-31' LIMIT 50 FOR UPDATE", String.class);
+
+        // Act
+        PurgaReportes purga = purgaService.iniciar(new FiltroReportes(null, null, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31)));
+        esperarFin(purga);
+
+        // Assert
+        assertThat(plan).contains("idx_reportes_fecha");
+        assertThat(purga.getEstado()).isEqualTo(PurgaReportes.Estado.COMPLETADA);
+        assertThat(purga.getBorrados()).isEqualTo(100);
+        assertThat(contar("SELECT COUNT(*) FROM reportes WHERE fecha_reporte = '2024-06-01'")).isEqualTo(100);
+    }
+
+    /**
+     * Verifica que no se inicia una purga con un rango de fechas invertido.
+     */
+    @Test
+    void testRangoInvalido() {
+        // Arrange
+        purgaService = new ReportesPurgaService(jdbcTemplate, new DataSourceTransactionManager(fuente), 1000, 50, 1.0, 3);
+        FiltroReportes filtro = new FiltroReportes(null, null, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> purgaService.iniciar(filtro)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Verifica que con sharding la purga recorre todos los shards por lotes, sin tocar la base principal
+     * ni anotar cambios, ya que el registro de cambios no existe en ese modo.
+     */
+    @Test
+    void testPurgaConShardingRecorreTodosLosShards() throws Exception {
+        // Arrange: 3 shards repartidos por area; user1 tiene reportes en todos ellos y uno en la base principal
+        List<DataSource> shards = BasesH2.migradas("purga_shard", 3);
+        ReportesShardedRepository shardedRepository = new ReportesShardedRepository(shards,
+                new ShardRouter(3, ShardingProperties.ClaveShard.AREA), new GeneradorIds(1), 5000, 1, 1);
+        for (int i = 0; i < 600; i++) {
+            shardedRepository.save(new Reportes(null, "area" + (i % 6), "user" + (i % 2), "Reporte " + i, Date.valueOf("2024-05-01")));
+        }
+        jdbcTemplate.update("INSERT INTO reportes (id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte) VALUES ('1', 'user1', 'Principal', '2024-05-01')");
+        purgaService = new ReportesPurgaService(jdbcTemplate, new DataSourceTransactionManager(fuente), 40, 0, 0, 3);
+        purgaService.setShardedRepository(shardedRepository);
+
+        try {
+            // Act
+            PurgaReportes purga = purgaService.iniciar(new FiltroReportes(null, "user1", null, null));
+            esperarFin(purga);
+
+            // Assert
+            assertThat(purga.getEstado()).isEqualTo(PurgaReportes.Estado.COMPLETADA);
+            assertThat(purga.getBorrados()).isEqualTo(300);
+            for (DataSource shard : shards) {
+                JdbcTemplate enShard = new JdbcTemplate(shard);
+                assertThat(enShard.queryForObject("SELECT COUNT(*) FROM reportes WHERE id_usuario = 'user1'", Long.class)).isZero();
+                assertThat(enShard.queryForObject("SELECT COUNT(*) FROM reportes WHERE id_usuario = 'user0'", Long.class)).isEqualTo(100);
+                assertThat(enShard.queryForObject("SELECT COUNT(*) FROM reportes_cambios", Long.class)).isZero();
+            }
+            assertThat(contar("SELECT COUNT(*) FROM reportes")).isEqualTo(1);
+            assertThat(contar("SELECT COUNT(*) FROM reportes_cambios")).isZero();
+        } finally {
+            BasesH2.cerrar(shards);
+            shardedRepository.close();
+        }
+    }
+
+    private void sembrar(String area, int cantidad) {
+        List<Object[]> filas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            filas.add(new Object[]{area, "user" + (i % 50), "Reporte " + i, Date.valueOf("2024-05-01")});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reportes (id_area_reporte, id_usuario, mensaje_reporte, fecha_reporte) VALUES (?, ?, ?, ?)", filas);
+    }
+
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static void esperarFin(PurgaReportes purga) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 30_000;
+        while (!purga.isTerminada() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(purga.isTerminada()).as("La purga %s no termino a tiempo", purga.getId()).isTrue();
+    }
+}
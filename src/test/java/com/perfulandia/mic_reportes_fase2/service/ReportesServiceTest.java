@@ -1,12 +1,26 @@
 package com.perfulandia.mic_reportes_fase2.service;
 
+import com.perfulandia.mic_reportes_fase2.concurrency.AdmissionControlProperties;
+import com.perfulandia.mic_reportes_fase2.concurrency.ReportesAdmissionControl;
+import com.perfulandia.mic_reportes_fase2.concurrency.SingleFlight;
+import com.perfulandia.mic_reportes_fase2.concurrency.SingleFlightProperties;
+import com.perfulandia.mic_reportes_fase2.model.ReporteCambio;
 import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import com.perfulandia.mic_reportes_fase2.repository.ReporteCambioRepository;
 import com.perfulandia.mic_reportes_fase2.repository.ReportesRepository;
+import com.perfulandia.mic_reportes_fase2.sharding.ReportesShardedRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.sql.Date;
 import java.util.Arrays;
@@ -15,6 +29,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -27,6 +42,22 @@ class ReportesServiceTest {
     @Mock // Se crea un mock del repositorio de reportes 
     private ReportesRepository reportesRepository;
 
+    @Mock // Las estadisticas se prueban por separado; aqui solo interesa la interaccion
+    private ReportesEstadisticasService estadisticasService;
+
+    @Mock // Registro de cambios escrito junto con cada escritura
+    private ReporteCambioRepository cambioRepository;
+
+    @Spy // Las transacciones se ejecutan contra un gestor simulado
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy // Control de admision real con la configuracion por defecto
+    private ReportesAdmissionControl admissionControl =
+            new ReportesAdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry());
+
+    @Spy // Agrupacion de lecturas real; en estas pruebas cada llamada es la unica en curso
+    private SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(), new AdmissionControlProperties(), new SimpleMeterRegistry());
+
     @InjectMocks // Se inyecta el mock del repositorio en el servicio que se va a probar 
     private ReportesService reportesService;
 
@@ -178,23 +209,94 @@ class ReportesServiceTest {
 
         // Verify
         verify(reportesRepository, times(1)).save(nuevoReporte); // Verifica que save() fue llamado una vez con el reporte
+        verify(estadisticasService, times(1)).registrar(reporteGuardado); // Un reporte nuevo alimenta las estadisticas
+        verify(cambioRepository, times(1)).save(argThat(cambio -> // Se registra el cambio como INSERT con el id asignado
+                ReporteCambio.INSERT.equals(cambio.getOperacion()) && cambio.getReporteId().equals(3L)));
     }
 
     /**
      * Prueba unitaria para el método `deleteById(Long id)`.
-     * Verifica que el servicio elimina un reporte y que se llama al método `deleteById()` del repositorio.
+     * Verifica que el servicio elimina un reporte con `borrarPorId()` y anota el borrado en el registro de cambios.
      */
     @Test
     void testDeleteById() {
         // Arrange
         Long idAEliminar = 1L;
+        when(reportesRepository.borrarPorId(idAEliminar)).thenReturn(1);
 
         // Act
         reportesService.deleteById(idAEliminar); 
 
         // Assert: No hay un valor de retorno para verificar, solo la interacción con el mock
         // Verify
-        verify(reportesRepository, times(1)).deleteById(idAEliminar); // Verifica que deleteById() fue llamado una vez con el ID
+        verify(reportesRepository, times(1)).borrarPorId(idAEliminar); // Verifica que borrarPorId() fue llamado una vez con el ID
+        verify(cambioRepository, times(1)).save(argThat(cambio -> // Se registra el borrado en el registro de cambios
+                ReporteCambio.DELETE.equals(cambio.getOperacion()) && cambio.getReporteId().equals(idAEliminar)));
         verifyNoMoreInteractions(reportesRepository); // Opcional: asegura que no hubo más interacciones con el repositorio
     }
+
+    /**
+     * Prueba unitaria para el método `deleteById(Long id)` con un ID que no existe.
+     * Verifica que no se anota ningun borrado en el registro de cambios.
+     */
+    @Test
+    void testDeleteByIdNoExistente() {
+        // Arrange
+        Long idNoExistente = 99L;
+        when(reportesRepository.borrarPorId(idNoExistente)).thenReturn(0);
+
+        // Act
+        reportesService.deleteById(idNoExistente);
+
+        // Verify
+        verify(reportesRepository, times(1)).borrarPorId(idNoExistente);
+        verify(cambioRepository, never()).save(any(ReporteCambio.class)); // Nada cambio, nada que sincronizar
+    }
+
+    /**
+     * Verifica que las escrituras usan una transaccion propia con el timeout del registro de cambios,
+     * y que un valor no positivo la deja sin limite.
+     */
+    @Test
+    void testTimeoutDeLasTransaccionesDeEscritura() {
+        // Arrange
+        ReportesService conTimeout = new ReportesService();
+        ReportesService sinLimite = new ReportesService();
+
+        // Act
+        conTimeout.setTransactionManager(mock(PlatformTransactionManager.class), 3);
+        sinLimite.setTransactionManager(mock(PlatformTransactionManager.class), 0);
+
+        // Assert
+        assertThat(((TransactionTemplate) ReflectionTestUtils.getField(conTimeout, "transactionTemplate")).getTimeout()).isEqualTo(3);
+        assertThat(((TransactionTemplate) ReflectionTestUtils.getField(sinLimite, "transactionTemplate")).getTimeout())
+                .isEqualTo(TransactionDefinition.TIMEOUT_DEFAULT);
+    }
+
+    /**
+     * Prueba unitaria para `save()` y `deleteById()` con sharding habilitado.
+     * Verifica que las escrituras van al shard, sin transaccion en la base principal ni registro de cambios.
+     */
+    @Test
+    void testEscriturasConSharding() {
+        // Arrange
+        ReportesShardedRepository shardedRepository = mock(ReportesShardedRepository.class);
+        ReflectionTestUtils.setField(reportesService, "shardedRepository", shardedRepository);
+        Reportes nuevoReporte = new Reportes(null, "Usuarios", "user3", "Nuevo usuario registrado", Date.valueOf("2023-02-01"));
+        when(shardedRepository.save(nuevoReporte)).thenReturn(nuevoReporte);
+        when(shardedRepository.deleteById(7L)).thenReturn(1);
+
+        // Act
+        Reportes resultado = reportesService.save(nuevoReporte);
+        reportesService.deleteById(7L);
+
+        // Assert
+        assertThat(resultado).isSameAs(nuevoReporte);
+
+        // Verify
+        verify(shardedRepository, times(1)).save(nuevoReporte);
+        verify(shardedRepository, times(1)).deleteById(7L);
+        verify(estadisticasService, times(1)).registrar(nuevoReporte);
+        verifyNoInteractions(reportesRepository, cambioRepository, transactionTemplate);
+    }
 }
\ No newline at end of file
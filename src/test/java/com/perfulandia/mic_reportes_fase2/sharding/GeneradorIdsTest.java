@@ -0,0 +1,84 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.sql.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clase de pruebas unitarias para {@link GeneradorIds} con un reloj controlado.
+ */
+class GeneradorIdsTest {
+
+    /**
+     * Verifica que los ids son unicos y crecientes, que llevan el shard
+     * y que al agotar la secuencia de un milisegundo se pasa al siguiente.
+     */
+    @Test
+    void testIdsUnicosCrecientesYConShard() {
+        // Arrange: el reloj avanza un milisegundo cada 1.500 lecturas
+        AtomicLong lecturas = new AtomicLong();
+        GeneradorIds generador = new GeneradorIds(3, () -> GeneradorIds.EPOCA_MS + lecturas.incrementAndGet() / 1500);
+        Set<Long> ids = new HashSet<>();
+        long anterior = 0;
+
+        // Act & Assert
+        for (int i = 0; i < 5000; i++) {
+            int shard = i % 7;
+            long id = generador.siguiente(shard);
+            assertThat(id).isGreaterThan(anterior);
+            assertThat(GeneradorIds.shardDe(id)).isEqualTo(shard);
+            ids.add(id);
+            anterior = id;
+        }
+        assertThat(ids).hasSize(5000);
+    }
+
+    /**
+     * Verifica que si el reloj retrocede no se repiten ids.
+     */
+    @Test
+    void testRelojQueRetrocede() {
+        // Arrange
+        AtomicLong ahora = new AtomicLong(GeneradorIds.EPOCA_MS + 1000);
+        GeneradorIds generador = new GeneradorIds(0, ahora::get);
+        long antes = generador.siguiente(0);
+
+        // Act
+        ahora.addAndGet(-500);
+        long despues = generador.siguiente(0);
+
+        // Assert
+        assertThat(despues).isGreaterThan(antes);
+    }
+
+    /**
+     * Verifica que con el mixin de ShardingConfig un id por encima de 2^53 se escribe como texto,
+     * sin perder digitos, y que se puede volver a leer tanto en texto como en numero.
+     */
+    @Test
+    void testIdsSeEscribenComoTextoEnJson() throws Exception {
+        // Arrange
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new ShardingConfig().reportesIdComoTexto().customize(builder);
+        ObjectMapper mapper = builder.build();
+        long id = new GeneradorIds(5, () -> GeneradorIds.EPOCA_MS + 86_400_000L * 1000).siguiente(2);
+        Reportes reporte = new Reportes(id, "1", "u1", "Reporte", Date.valueOf("2025-01-01"));
+
+        // Act
+        String json = mapper.writeValueAsString(reporte);
+
+        // Assert
+        assertThat(id).isGreaterThan(1L << 53);
+        assertThat(json).contains("\"id\":\"" + id + "\"");
+        assertThat(mapper.readValue(json, Reportes.class).getId()).isEqualTo(id);
+        assertThat(mapper.readValue("{\"id\":" + id + "}", Reportes.class).getId()).isEqualTo(id);
+    }
+}
@@ -0,0 +1,194 @@
+package com.perfulandia.mic_reportes_fase2.sharding;
+
+import com.perfulandia.mic_reportes_fase2.BasesH2;
+import com.perfulandia.mic_reportes_fase2.model.FiltroReportes;
+import com.perfulandia.mic_reportes_fase2.model.PaginaReportes;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Clase de pruebas para {@link ReportesShardedRepository} contra tres bases H2 en memoria,
+ * cada una con las migraciones de Flyway, repartiendo los reportes por area.
+ */
+class ReportesShardedRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private List<DataSource> fuentes;
+    private ShardRouter router;
+    private ReportesShardedRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        fuentes = BasesH2.migradas("shard", SHARDS);
+        router = new ShardRouter(SHARDS, ShardingProperties.ClaveShard.AREA);
+        repository = new ReportesShardedRepository(fuentes, router, new GeneradorIds(1), 5000, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        BasesH2.cerrar(fuentes);
+        repository.close();
+    }
+
+    /**
+     * Verifica que cada reporte nuevo se guarda solo en el shard de su area,
+     * con un id que lleva ese shard, y que la busqueda por id lo encuentra.
+     */
+    @Test
+    void testSaveEnrutaPorAreaYFindByIdVaAlShardDelId() {
+        // Arrange
+        List<Reportes> guardados = guardar(30);
+
+        // Assert
+        assertThat(guardados).extracting(Reportes::getId).doesNotHaveDuplicates();
+        for (Reportes reporte : guardados) {
+            int shard = router.shardPara(reporte);
+            assertThat(router.shardDeId(reporte.getId())).isEqualTo(shard);
+            assertThat(contar(shard, reporte.getId())).isEqualTo(1);
+            assertThat(repository.findById(reporte.getId())).contains(reporte);
+        }
+        assertThat(repository.existsById(guardados.get(0).getId())).isTrue();
+        assertThat(repository.existsById(12345L)).isFalse();
+    }
+
+    /**
+     * Verifica que findAll consulta todos los shards y devuelve la union ordenada por id.
+     */
+    @Test
+    void testFindAllFusionaTodosLosShards() {
+        // Arrange
+        List<Reportes> guardados = guardar(30);
+        guardados.sort(Comparator.comparing(Reportes::getId));
+
+        // Act
+        List<Reportes> todos = repository.findAll();
+
+        // Assert
+        assertThat(todos).containsExactlyElementsOf(guardados);
+    }
+
+    /**
+     * Verifica que una busqueda filtrada pagina sobre el orden global, no sobre el de cada shard,
+     * y que el total suma las coincidencias de todos los shards.
+     */
+    @Test
+    void testBuscarPaginaSobreTodosLosShards() {
+        // Arrange: user0 tiene reportes en todas las areas y por tanto en varios shards
+        List<Reportes> esperados = guardar(60).stream()
+                .filter(reporte -> reporte.getId_usuario().equals("user0"))
+                .sorted(Comparator.comparing(Reportes::getId))
+                .toList();
+        FiltroReportes filtro = new FiltroReportes(null, "user0", null, null);
+
+        // Act
+        PaginaReportes pagina = repository.buscar(filtro, 1, 7);
+
+        // Assert
+        assertThat(pagina.getTotal()).isEqualTo(esperados.size());
+        assertThat(pagina.getReportes()).containsExactlyElementsOf(esperados.subList(7, 14));
+    }
+
+    /**
+     * Verifica que el conteo por area suma los conteos parciales de cada shard.
+     */
+    @Test
+    void testContarPorArea() {
+        // Arrange
+        guardar(30);
+
+        // Act
+        Map<String, Long> porArea = repository.contarPorArea();
+
+        // Assert
+        assertThat(porArea).hasSize(5).allSatisfy((area, cantidad) -> assertThat(cantidad).isEqualTo(6L));
+    }
+
+    /**
+     * Verifica que actualizar y borrar por id afecta solo al shard que indica el id.
+     */
+    @Test
+    void testActualizarYBorrarPorId() {
+        // Arrange
+        Reportes reporte = guardar(1).get(0);
+        int shard = router.shardDeId(reporte.getId());
+
+        // Act
+        reporte.setMensajeReporte("Mensaje corregido");
+        repository.save(reporte);
+
+        // Assert
+        assertThat(repository.findById(reporte.getId())).get()
+                .extracting(Reportes::getMensajeReporte).isEqualTo("Mensaje corregido");
+
+        // Act
+        repository.deleteById(reporte.getId());
+
+        // Assert
+        assertThat(contar(shard, reporte.getId())).isZero();
+        assertThat(repository.findById(reporte.getId())).isEmpty();
+    }
+
+    /**
+     * Verifica que si un shard no contesta dentro del timeout la consulta repartida falla entera
+     * con el Retry-After configurado, en vez de devolver solo lo de los shards que contestaron.
+     */
+    @Test
+    void testShardLentoRechazaConRetryAfterConfigurado() {
+        // Arrange: el primer shard tarda un segundo en dar conexion y el timeout es de 200 ms
+        List<DataSource> conShardLento = new ArrayList<>(fuentes);
+        conShardLento.set(0, new DelegatingDataSource(fuentes.get(0)) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getConnection();
+            }
+        });
+        ReportesShardedRepository lento = new ReportesShardedRepository(conShardLento, router, new GeneradorIds(1), 200, 1, 7);
+
+        try {
+            // Act
+            ShardNoDisponibleException rechazo = catchThrowableOfType(lento::contarPorArea, ShardNoDisponibleException.class);
+
+            // Assert
+            assertThat(rechazo).isNotNull();
+            assertThat(rechazo.getRetryAfterSegundos()).isEqualTo(7);
+        } finally {
+            lento.close();
+        }
+    }
+
+    private List<Reportes> guardar(int cantidad) {
+        List<Reportes> guardados = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Reportes reporte = new Reportes(null, "area" + (i % 5), "user" + (i % 4), "Reporte " + i,
+                    Date.valueOf("2024-05-01"));
+            guardados.add(repository.save(reporte));
+        }
+        return guardados;
+    }
+
+    private int contar(int shard, long id) {
+        return new JdbcTemplate(fuentes.get(shard)).queryForObject("SELECT COUNT(*) FROM reportes WHERE id = ?", Integer.class, id);
+    }
+}
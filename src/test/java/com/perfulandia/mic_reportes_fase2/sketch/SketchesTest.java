@@ -0,0 +1,86 @@
+package com.perfulandia.mic_reportes_fase2.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Clase de pruebas unitarias para {@link HyperLogLog}, {@link CountMinSketch} y {@link SpaceSaving}.
+ * Comprueba que las estimaciones quedan dentro de las cotas de error documentadas.
+ */
+class SketchesTest {
+
+    /**
+     * Verifica que HyperLogLog estima la cardinalidad dentro de tres errores estandar
+     * y que al combinar dos sketches no se cuentan dos veces los valores comunes.
+     */
+    @Test
+    void testHyperLogLogEstimaYCombina() {
+        // Arrange: dos dias con 50.000 usuarios cada uno y 25.000 en comun
+        HyperLogLog dia1 = new HyperLogLog(14);
+        HyperLogLog dia2 = new HyperLogLog(14);
+        for (int i = 0; i < 50_000; i++) {
+            dia1.add("user" + i);
+            dia2.add("user" + (i + 25_000));
+        }
+
+        // Act
+        dia1.merge(dia2);
+
+        // Assert
+        double margen = 3 * dia1.errorEstandar() * 75_000;
+        assertThat((double) dia2.estimate()).isCloseTo(50_000, within(3 * dia2.errorEstandar() * 50_000));
+        assertThat((double) dia1.estimate()).isCloseTo(75_000, within(margen));
+    }
+
+    /**
+     * Verifica que Count-Min nunca subestima y que su error queda por debajo de epsilon * total.
+     */
+    @Test
+    void testCountMinAcotaLaSobreestimacion() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("user" + (i % 2_000), 1);
+        }
+        sketch.add("ruidoso", 5_000);
+
+        // Act
+        long estimacion = sketch.estimate("ruidoso");
+
+        // Assert
+        assertThat(estimacion).isGreaterThanOrEqualTo(5_000);
+        assertThat(estimacion - 5_000).isLessThanOrEqualTo(sketch.errorMaximo());
+    }
+
+    /**
+     * Verifica que Space-Saving conserva a los usuarios mas activos aunque haya muchos mas usuarios
+     * que contadores, tambien despues de combinar dos resumenes.
+     */
+    @Test
+    void testSpaceSavingEncuentraLosMasActivos() {
+        // Arrange: tres usuarios muy activos entre 10.000 ocasionales, repartidos en dos dias
+        SpaceSaving dia1 = new SpaceSaving(100);
+        SpaceSaving dia2 = new SpaceSaving(100);
+        for (int i = 0; i < 10_000; i++) {
+            SpaceSaving dia = i % 2 == 0 ? dia1 : dia2;
+            dia.add("ocasional" + i, 1);
+            dia.add("user1", 3);
+            dia.add("user2", 2);
+            dia.add("user3", 1);
+        }
+
+        // Act
+        dia1.merge(dia2);
+        List<SpaceSaving.Contador> top = dia1.top(3);
+
+        // Assert
+        assertThat(top).extracting(SpaceSaving.Contador::clave).containsExactly("user1", "user2", "user3");
+        assertThat(top.get(0).cuenta() - top.get(0).error()).isLessThanOrEqualTo(30_000);
+        assertThat(top.get(0).cuenta()).isGreaterThanOrEqualTo(30_000);
+        assertThat(dia1.getTotal()).isEqualTo(70_000);
+    }
+}
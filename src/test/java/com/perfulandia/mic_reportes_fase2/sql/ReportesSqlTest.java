@@ -0,0 +1,63 @@
+package com.perfulandia.mic_reportes_fase2.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.perfulandia.mic_reportes_fase2.model.Reportes;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de integracion que fijan cuantas sentencias SQL ejecuta cada endpoint de {@code /api/v1/reportes}
+ * contra la base H2 embebida. Si un cambio introduce consultas de mas (p. ej. un N+1), estas pruebas fallan.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ReportesSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Crear un reporte: INSERT del reporte y INSERT en el registro de cambios.
+     * Consultarlo por id: existsById y findById. Listar: una sola consulta.
+     */
+    @Test
+    void testSentenciasPorEndpoint() throws Exception {
+        // Arrange
+        Reportes nuevo = new Reportes(null, "1", "user1", "Reporte de ventas", Date.valueOf("2024-05-01"));
+
+        // Act & Assert
+        String creado = mockMvc.perform(post("/api/v1/reportes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(nuevo)))
+                .andExpect(status().isCreated())
+                .andExpect(SqlAssertions.sentencias(2))
+                .andExpect(header().exists(SqlRequestStatsFilter.CABECERA_TIEMPO))
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(creado, "$.id")).longValue();
+
+        mockMvc.perform(get("/api/v1/reportes/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(SqlAssertions.sentencias(2));
+
+        mockMvc.perform(get("/api/v1/reportes"))
+                .andExpect(status().isOk())
+                .andExpect(SqlAssertions.sentencias(1));
+    }
+}
@@ -0,0 +1,50 @@
+package com.perfulandia.mic_reportes_fase2.sql;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Utilidad de pruebas para comprobar cuantas sentencias SQL ejecuta un endpoint.
+ * Lee la cabecera {@code X-Sql-Sentencias} que agrega {@link SqlRequestStatsFilter}, por lo que
+ * sirve en cualquier prueba con MockMvc que incluya los filtros y una base de datos real.
+ * <pre>
+ * mockMvc.perform(get("/api/v1/reportes")).andExpect(SqlAssertions.sentencias(1));
+ * </pre>
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    /**
+     * Exige exactamente {@code esperadas} sentencias en la peticion.
+     */
+    public static ResultMatcher sentencias(int esperadas) {
+        return resultado -> assertThat(leer(resultado))
+                .as("Sentencias SQL de %s", descripcion(resultado))
+                .isEqualTo(esperadas);
+    }
+
+    /**
+     * Exige como mucho {@code maximo} sentencias; util para detectar N+1 en listados.
+     */
+    public static ResultMatcher maximoSentencias(int maximo) {
+        return resultado -> assertThat(leer(resultado))
+                .as("Sentencias SQL de %s", descripcion(resultado))
+                .isLessThanOrEqualTo(maximo);
+    }
+
+    private static int leer(MvcResult resultado) {
+        String valor = resultado.getResponse().getHeader(SqlRequestStatsFilter.CABECERA_SENTENCIAS);
+        assertThat(valor)
+                .as("Cabecera %s ausente: ¿la prueba incluye los filtros y reportes.sql.cabeceras=true?", SqlRequestStatsFilter.CABECERA_SENTENCIAS)
+                .isNotNull();
+        return Integer.parseInt(valor);
+    }
+
+    private static String descripcion(MvcResult resultado) {
+        return resultado.getRequest().getMethod() + " " + resultado.getRequest().getRequestURI();
+    }
+}